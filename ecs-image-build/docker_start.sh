@@ -4,4 +4,9 @@
 
 PORT=8080
 
-exec java -jar -Dserver.port="${PORT}" -XX:MaxRAMPercentage=80 "charges-delta-consumer.jar"
\ No newline at end of file
+# HttpURLConnection keep-alive cache used by the charges-data-api client
+HTTP_KEEP_ALIVE="${API_HTTP_KEEP_ALIVE:-true}"
+HTTP_MAX_CONNECTIONS="${API_HTTP_MAX_CONNECTIONS:-50}"
+
+exec java -jar -Dserver.port="${PORT}" -Dhttp.keepAlive="${HTTP_KEEP_ALIVE}" \
+    -Dhttp.maxConnections="${HTTP_MAX_CONNECTIONS}" -XX:MaxRAMPercentage=80 "charges-delta-consumer.jar"
\ No newline at end of file
@@ -0,0 +1,161 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Compiles noticeTypes.txt into the NoticeTypes lookup class used by NoticeTypeMapperUtils.
+ *
+ * <p>Run as a single-file source program during generate-sources:
+ * {@code java NoticeTypesGenerator.java <noticeTypes.txt> <output source directory>}.
+ * Each line of the file lists the trans_desc patterns and filing types for one notice type:
+ * {@code notice_type: <type>, [trans_desc: <pattern>,] filing_type: <filing type>, ...}.
+ * An entry without a trans_desc is the filing type used when no pattern matches. The build
+ * fails on a line that does not follow this format or a pattern that does not compile.
+ */
+public class NoticeTypesGenerator {
+
+    private static final String PACKAGE = "uk.gov.companieshouse.charges.delta.mapper";
+    private static final String CLASS_NAME = "NoticeTypes";
+    private static final String NOTICE_TYPE = "notice_type:";
+    private static final String TRANS_DESC = "trans_desc:";
+    private static final String FILING_TYPE = "filing_type:";
+    private static final String NO_PATTERN = "no_pattern";
+    private static final String DELIMITER = ",";
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            throw new IllegalArgumentException(
+                    "Usage: java NoticeTypesGenerator.java <noticeTypes.txt> <output directory>");
+        }
+        Path dataFile = Path.of(args[0]);
+        Path outputFile = Path.of(args[1], PACKAGE.split("\\.")).resolve(CLASS_NAME + ".java");
+
+        Map<String, Map<String, String>> noticeTypes = parse(dataFile);
+        Files.createDirectories(outputFile.getParent());
+        Files.writeString(outputFile, generate(dataFile.getFileName().toString(), noticeTypes),
+                StandardCharsets.UTF_8);
+        System.out.printf("Generated %s with %d notice types%n", outputFile, noticeTypes.size());
+    }
+
+    private static Map<String, Map<String, String>> parse(Path dataFile) throws IOException {
+        Map<String, Map<String, String>> noticeTypes = new LinkedHashMap<>();
+        List<String> lines = Files.readAllLines(dataFile, StandardCharsets.UTF_8);
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i);
+            if (line.isBlank()) {
+                continue;
+            }
+            String location = dataFile.getFileName() + ":" + (i + 1);
+            String noticeType = null;
+            Map<String, String> patterns = new LinkedHashMap<>();
+
+            List<String> tokens = new ArrayList<>();
+            for (String token : line.split(DELIMITER)) {
+                tokens.add(token.trim());
+            }
+            int position = 0;
+            while (position < tokens.size()) {
+                String entryNoticeType = value(tokens.get(position++), NOTICE_TYPE, location);
+                if (noticeType != null && !noticeType.equals(entryNoticeType)) {
+                    throw invalid(location, "mixes notice types " + noticeType + " and "
+                            + entryNoticeType);
+                }
+                noticeType = entryNoticeType;
+
+                String pattern = NO_PATTERN;
+                if (position < tokens.size() && tokens.get(position).startsWith(TRANS_DESC)) {
+                    pattern = value(tokens.get(position++), TRANS_DESC, location);
+                    try {
+                        Pattern.compile(pattern);
+                    } catch (PatternSyntaxException ex) {
+                        throw invalid(location, "has an invalid trans_desc pattern: "
+                                + ex.getMessage());
+                    }
+                }
+                if (position == tokens.size()) {
+                    throw invalid(location, "is missing a filing_type for " + noticeType);
+                }
+                String filingType = value(tokens.get(position++), FILING_TYPE, location);
+                if (patterns.put(pattern, filingType) != null) {
+                    throw invalid(location, "repeats trans_desc " + pattern);
+                }
+            }
+            if (noticeTypes.put(noticeType, patterns) != null) {
+                throw invalid(location, "repeats notice type " + noticeType);
+            }
+        }
+        return noticeTypes;
+    }
+
+    private static String value(String token, String prefix, String location) {
+        if (!token.startsWith(prefix)) {
+            throw invalid(location, "expected " + prefix + " but found '" + token + "'");
+        }
+        String value = token.substring(prefix.length()).trim();
+        if (value.isEmpty()) {
+            throw invalid(location, "has an empty " + prefix);
+        }
+        return value;
+    }
+
+    private static IllegalStateException invalid(String location, String reason) {
+        return new IllegalStateException(location + " " + reason);
+    }
+
+    private static String generate(String source, Map<String, Map<String, String>> noticeTypes) {
+        StringBuilder java = new StringBuilder()
+                .append("package ").append(PACKAGE).append(";\n\n")
+                .append("import java.util.LinkedHashMap;\n")
+                .append("import java.util.Map;\n")
+                .append("import javax.annotation.processing.Generated;\n\n")
+                .append("/**\n")
+                .append(" * Filing types by notice type, generated from ").append(source)
+                .append(" at build time. Do not edit.\n")
+                .append(" */\n")
+                .append("@Generated(\"NoticeTypesGenerator\")\n")
+                .append("final class ").append(CLASS_NAME).append(" {\n\n")
+                .append("    static final Map<String, NoticeTypeTransDesc> MAP = Map.ofEntries(");
+        String separator = "\n";
+        for (Map.Entry<String, Map<String, String>> noticeType : noticeTypes.entrySet()) {
+            java.append(separator)
+                    .append("            Map.entry(").append(literal(noticeType.getKey()))
+                    .append(", new NoticeTypeTransDesc(").append(literal(noticeType.getKey()))
+                    .append(", patterns(");
+            String patternSeparator = "";
+            for (Map.Entry<String, String> pattern : noticeType.getValue().entrySet()) {
+                java.append(patternSeparator)
+                        .append("\n                    ").append(literal(pattern.getKey()))
+                        .append(", ").append(literal(pattern.getValue()));
+                patternSeparator = ",";
+            }
+            java.append(")))");
+            separator = ",\n";
+        }
+        return java.append(");\n\n")
+                .append("    private ").append(CLASS_NAME).append("() {\n")
+                .append("    }\n\n")
+                .append("    /**\n")
+                .append("     * Filing types keyed on trans_desc pattern, in file order.\n")
+                .append("     */\n")
+                .append("    private static Map<String, String> patterns(String... patternsAndFilingTypes) {\n")
+                .append("        Map<String, String> patterns = new LinkedHashMap<>();\n")
+                .append("        for (int i = 0; i < patternsAndFilingTypes.length; i += 2) {\n")
+                .append("            patterns.put(patternsAndFilingTypes[i], patternsAndFilingTypes[i + 1]);\n")
+                .append("        }\n")
+                .append("        return patterns;\n")
+                .append("    }\n")
+                .append("}\n")
+                .toString();
+    }
+
+    private static String literal(String value) {
+        return '"' + value.replace("\\", "\\\\").replace("\"", "\\\"") + '"';
+    }
+}
@@ -20,6 +20,7 @@ import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.core.ProducerFactory;
 import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.support.converter.MessagingMessageConverter;
 import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
 import org.testcontainers.containers.KafkaContainer;
 import org.testcontainers.containers.wait.strategy.Wait;
@@ -65,6 +66,9 @@ public class KafkaTestContainerConfig {
         factory.getContainerProperties().setIdleBetweenPolls(0);
         factory.getContainerProperties().setPollTimeout(10L);
         factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.RECORD);
+        MessagingMessageConverter recordConverter = new MessagingMessageConverter();
+        recordConverter.setRawRecordHeader(true);
+        factory.setRecordMessageConverter(recordConverter);
 
         return factory;
     }
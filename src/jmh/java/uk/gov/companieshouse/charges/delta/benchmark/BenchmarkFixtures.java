@@ -0,0 +1,25 @@
+package uk.gov.companieshouse.charges.delta.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+/**
+ * Loads the JSON fixtures shared with the unit tests.
+ */
+final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {
+    }
+
+    static String load(String fileName) {
+        try (InputStream inputStream = Objects.requireNonNull(
+                BenchmarkFixtures.class.getClassLoader().getResourceAsStream(fileName), fileName)) {
+            return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package uk.gov.companieshouse.charges.delta.benchmark;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.apache.avro.io.DatumReader;
+import org.apache.avro.io.Decoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.reflect.ReflectDatumReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import uk.gov.companieshouse.charges.delta.serialization.ChsDeltaDeserializer;
+import uk.gov.companieshouse.charges.delta.serialization.ChsDeltaSerializer;
+import uk.gov.companieshouse.delta.ChsDelta;
+
+/**
+ * Per-record cost of decoding the Avro {@link ChsDelta} envelope: a reflect reader and decoder
+ * built per record, as the deserializer used to do, against the cached specific reader.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ChsDeltaDeserializeBenchmark {
+
+    @Param({"charges-delta-source-1.json", "charges-delta-source-20.json"})
+    private String fixture;
+
+    private byte[] data;
+    private ChsDeltaDeserializer deserializer;
+
+    @Setup
+    public void setUp() {
+        ChsDelta chsDelta = new ChsDelta(BenchmarkFixtures.load(fixture), 1, "context_id", false);
+        data = new ChsDeltaSerializer().serialize("", chsDelta);
+        deserializer = new ChsDeltaDeserializer();
+    }
+
+    @Benchmark
+    public ChsDelta reflectReaderPerRecord() throws IOException {
+        Decoder decoder = DecoderFactory.get().binaryDecoder(data, null);
+        DatumReader<ChsDelta> reader = new ReflectDatumReader<>(ChsDelta.class);
+        return reader.read(null, decoder);
+    }
+
+    @Benchmark
+    public ChsDelta cachedSpecificReader() {
+        return deserializer.deserialize("", data);
+    }
+}
@@ -0,0 +1,166 @@
+package uk.gov.companieshouse.charges.delta.benchmark;
+
+import static org.apache.commons.lang3.StringUtils.trim;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.MessageHeaders;
+import uk.gov.companieshouse.api.charges.ChargeApi;
+import uk.gov.companieshouse.api.charges.InternalChargeApi;
+import uk.gov.companieshouse.api.delta.AdditionalNotice;
+import uk.gov.companieshouse.api.delta.Charge;
+import uk.gov.companieshouse.api.delta.ChargesDelta;
+import uk.gov.companieshouse.api.delta.Person;
+import uk.gov.companieshouse.charges.delta.config.TestConfig;
+import uk.gov.companieshouse.charges.delta.mapper.ChargeApiMapper;
+import uk.gov.companieshouse.charges.delta.mapper.NoticeTypeMapperUtils;
+import uk.gov.companieshouse.charges.delta.mapper.NoticeTypeTransDesc;
+import uk.gov.companieshouse.charges.delta.mapper.TextFormatter;
+import uk.gov.companieshouse.charges.delta.processor.EncoderUtil;
+import uk.gov.companieshouse.charges.delta.serialization.ChargesDeltaJsonDecoder;
+import uk.gov.companieshouse.charges.delta.serialization.ChsDeltaDeserializer;
+import uk.gov.companieshouse.charges.delta.serialization.ChsDeltaSerializer;
+import uk.gov.companieshouse.charges.delta.transformer.ChargesApiTransformer;
+import uk.gov.companieshouse.delta.ChsDelta;
+
+/**
+ * Each stage a delta passes through between the Kafka record and the charges-data-api request,
+ * measured separately against the same fixture. The components are wired from {@link TestConfig}
+ * as in the unit tests. Run with the gc profiler to see the allocation rate of each stage:
+ * {@code make benchmark JMH_ARGS="DeltaHotPathBenchmark -prof gc"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class DeltaHotPathBenchmark {
+
+    @Param({"charges-delta-source-1.json", "charges-delta-source-6.json",
+            "charges-delta-source-11.json", "charges-delta-source-17.json",
+            "charges-delta-source-20.json"})
+    private String fixture;
+
+    private AnnotationConfigApplicationContext context;
+    private ChsDeltaDeserializer deserializer;
+    private ChargesDeltaJsonDecoder jsonDecoder;
+    private ChargesApiTransformer transformer;
+    private ChargeApiMapper descriptiveChargeApiMapper;
+    private TextFormatter textFormatter;
+    private EncoderUtil encoderUtil;
+
+    private byte[] record;
+    private String json;
+    private Charge charge;
+    private String encodedChargeId;
+    private MessageHeaders headers;
+    private String particulars;
+    private List<String> entityNames;
+    private List<String[]> notices;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        context = new AnnotationConfigApplicationContext(TestConfig.class, ChargesApiTransformer.class);
+        transformer = context.getBean(ChargesApiTransformer.class);
+        descriptiveChargeApiMapper = context.getBean("descriptiveChargeApiMapper", ChargeApiMapper.class);
+        textFormatter = context.getBean(TextFormatter.class);
+        encoderUtil = context.getBean(EncoderUtil.class);
+        deserializer = new ChsDeltaDeserializer();
+        jsonDecoder = new ChargesDeltaJsonDecoder(false);
+
+        json = BenchmarkFixtures.load(fixture);
+        record = new ChsDeltaSerializer().serialize("", new ChsDelta(json, 1, "context_id", false));
+        charge = jsonDecoder.decode(json, ChargesDelta.class).getCharges().get(0);
+        encodedChargeId = encoderUtil.encodeWithSha1(charge.getId());
+        headers = new MessageHeaders(Map.of(
+                KafkaHeaders.RECEIVED_TOPIC, "charges-delta",
+                KafkaHeaders.RECEIVED_PARTITION, 0,
+                KafkaHeaders.OFFSET, 1L));
+
+        particulars = Stream.of(charge.getShortParticulars(), charge.getDescriptionOfPropertyCharged(),
+                        charge.getDescriptionOfPropertyUndertaking(), charge.getBriefDescription())
+                .filter(Objects::nonNull)
+                .findFirst()
+                .orElse("");
+        entityNames = charge.getPersonsEntitled() == null ? List.of()
+                : charge.getPersonsEntitled().stream().map(Person::getPerson).toList();
+        notices = new ArrayList<>();
+        notices.add(new String[] {charge.getNoticeType(), charge.getTransDesc()});
+        if (charge.getAdditionalNotices() != null) {
+            for (AdditionalNotice notice : charge.getAdditionalNotices()) {
+                notices.add(new String[] {notice.getNoticeType(), notice.getTransDesc()});
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ChsDelta deserializeRecord() {
+        return deserializer.deserialize("charges-delta", record);
+    }
+
+    /**
+     * The decoding done by {@code ChargesDeltaProcessor.mapToChargesDelta}.
+     */
+    @Benchmark
+    public ChargesDelta mapToChargesDelta() throws IOException {
+        return jsonDecoder.decode(json, ChargesDelta.class);
+    }
+
+    @Benchmark
+    public InternalChargeApi transform() {
+        return transformer.transform(charge, encodedChargeId, headers);
+    }
+
+    @Benchmark
+    public ChargeApi descriptiveChargeApiMapper() {
+        return descriptiveChargeApiMapper.chargeToChargeApi(charge, charge.getCompanyNumber());
+    }
+
+    @Benchmark
+    public String formatAsParticulars() {
+        return textFormatter.formatAsParticulars(particulars);
+    }
+
+    @Benchmark
+    public void formatAsEntityName(Blackhole blackhole) {
+        for (String entityName : entityNames) {
+            blackhole.consume(textFormatter.formatAsEntityName(entityName));
+        }
+    }
+
+    @Benchmark
+    public String encodeWithSha1() {
+        return encoderUtil.encodeWithSha1(charge.getId());
+    }
+
+    @Benchmark
+    public void getFilingType(Blackhole blackhole) {
+        for (String[] notice : notices) {
+            NoticeTypeTransDesc noticeTypeTransDesc = NoticeTypeMapperUtils.map.get(trim(notice[0]));
+            if (noticeTypeTransDesc != null) {
+                blackhole.consume(noticeTypeTransDesc.getFilingType(notice[1]));
+            }
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package uk.gov.companieshouse.charges.delta.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import uk.gov.companieshouse.api.delta.ChargesDelta;
+import uk.gov.companieshouse.charges.delta.serialization.ChargesDeltaJsonDecoder;
+
+/**
+ * Per-message cost of decoding the delta JSON: a new {@link ObjectMapper} per message, as the
+ * processor used to do, against the shared {@link ChargesDeltaJsonDecoder}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DeltaParseBenchmark {
+
+    @Param({"charges-delta-source-1.json", "charges-delta-source-20.json"})
+    private String fixture;
+
+    private String json;
+    private ChargesDeltaJsonDecoder decoder;
+    private ChargesDeltaJsonDecoder blackbirdDecoder;
+
+    @Setup
+    public void setUp() {
+        json = BenchmarkFixtures.load(fixture);
+        decoder = new ChargesDeltaJsonDecoder(false);
+        blackbirdDecoder = new ChargesDeltaJsonDecoder(true);
+    }
+
+    @Benchmark
+    public ChargesDelta newObjectMapperPerMessage() throws IOException {
+        return new ObjectMapper().readValue(json, ChargesDelta.class);
+    }
+
+    @Benchmark
+    public ChargesDelta sharedReader() throws IOException {
+        return decoder.decode(json, ChargesDelta.class);
+    }
+
+    @Benchmark
+    public ChargesDelta sharedReaderWithBlackbird() throws IOException {
+        return blackbirdDecoder.decode(json, ChargesDelta.class);
+    }
+}
@@ -0,0 +1,47 @@
+package uk.gov.companieshouse.charges.delta.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.codec.DecoderException;
+import org.apache.commons.codec.binary.Base64;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import uk.gov.companieshouse.charges.delta.processor.EncoderUtil;
+
+/**
+ * Per-id cost of encoding a charge id: a new digest producing hex that is decoded again before
+ * Base64 encoding, as the encoder used to do, against the thread-local digest encoded directly.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class EncoderUtilBenchmark {
+
+    private static final String CHARGE_ID_SALT = "charge_id_salt";
+    private static final String CHARGE_ID = "3001283055";
+
+    private EncoderUtil encoderUtil;
+
+    @Setup
+    public void setUp() {
+        encoderUtil = new EncoderUtil(CHARGE_ID_SALT, "trans_id_salt");
+    }
+
+    @Benchmark
+    public String hexRoundTrip() throws DecoderException {
+        String sha1Hex = DigestUtils.sha1Hex(StringUtils.trim(CHARGE_ID) + CHARGE_ID_SALT);
+        return Base64.encodeBase64URLSafeString(Hex.decodeHex(sha1Hex));
+    }
+
+    @Benchmark
+    public String threadLocalDigest() {
+        return encoderUtil.encodeWithSha1(CHARGE_ID);
+    }
+}
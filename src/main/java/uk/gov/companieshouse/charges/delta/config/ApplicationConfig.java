@@ -28,6 +28,8 @@ public class ApplicationConfig implements WebMvcConfigurer {
     Supplier<InternalApiClient> internalApiClientSupplier(
             @Value("${api.charges-data-api-key}") String apiKey,
             @Value("${api.api-url}") String apiUrl) {
+        // The SDK's HTTP transport is backed by HttpURLConnection, whose keep-alive cache is
+        // configured with JVM options in docker_start.sh.
         return () -> {
             InternalApiClient internalApiClient = new InternalApiClient(new ApiKeyHttpClient(
                     apiKey));
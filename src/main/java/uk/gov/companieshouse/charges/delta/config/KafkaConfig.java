@@ -1,13 +1,17 @@
 package uk.gov.companieshouse.charges.delta.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.TopicPartition;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
@@ -17,12 +21,23 @@ import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.MicrometerConsumerListener;
 import org.springframework.kafka.core.ProducerFactory;
 import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.support.ExponentialBackOffWithMaxRetries;
+import org.springframework.kafka.support.converter.BatchMessagingMessageConverter;
+import org.springframework.kafka.support.converter.MessagingMessageConverter;
 import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
+import org.springframework.util.backoff.BackOff;
+import uk.gov.companieshouse.charges.delta.exception.ErrorCategory;
+import uk.gov.companieshouse.charges.delta.exception.NonRetryableErrorException;
+import uk.gov.companieshouse.charges.delta.exception.RetryBackoffJitterInterceptor;
 import uk.gov.companieshouse.charges.delta.exception.RetryableTopicErrorInterceptor;
 import uk.gov.companieshouse.charges.delta.serialization.ChsDeltaDeserializer;
 import uk.gov.companieshouse.charges.delta.serialization.ChsDeltaSerializer;
+import uk.gov.companieshouse.charges.delta.store.ContentHashStore;
 import uk.gov.companieshouse.delta.ChsDelta;
 
 @Configuration
@@ -35,6 +50,10 @@ public class KafkaConfig {
 
     private final String bootstrapServers;
     private final Integer listenerConcurrency;
+    private final MeterRegistry meterRegistry;
+    private final ContentHashStore contentHashStore;
+    private final String retryTopic;
+    private final double backoffJitter;
 
     /**
      * Constructor.
@@ -42,11 +61,19 @@ public class KafkaConfig {
     public KafkaConfig(ChsDeltaDeserializer chsDeltaDeserializer,
                        ChsDeltaSerializer chsDeltaSerializer,
                        @Value("${spring.kafka.bootstrap-servers}") String bootstrapServers,
-                       @Value("${spring.kafka.listener.concurrency}") Integer listenerConcurrency) {
+                       @Value("${spring.kafka.listener.concurrency}") Integer listenerConcurrency,
+                       MeterRegistry meterRegistry,
+                       ContentHashStore contentHashStore,
+                       @Value("${charges.delta.topic}-${charges.delta.group-id}-retry") String retryTopic,
+                       @Value("${charges.delta.backoff-jitter}") double backoffJitter) {
         this.chsDeltaDeserializer = chsDeltaDeserializer;
         this.chsDeltaSerializer = chsDeltaSerializer;
         this.bootstrapServers = bootstrapServers;
         this.listenerConcurrency = listenerConcurrency;
+        this.meterRegistry = meterRegistry;
+        this.contentHashStore = contentHashStore;
+        this.retryTopic = retryTopic;
+        this.backoffJitter = backoffJitter;
     }
 
     /**
@@ -54,8 +81,8 @@ public class KafkaConfig {
      */
     @Bean
     public ConsumerFactory<String, ChsDelta> kafkaConsumerFactory() {
-        return new DefaultKafkaConsumerFactory<>(consumerConfigs(), new StringDeserializer(),
-                new ErrorHandlingDeserializer<>(chsDeltaDeserializer));
+        return withMetrics(new DefaultKafkaConsumerFactory<>(consumerConfigs(),
+                new StringDeserializer(), new ErrorHandlingDeserializer<>(chsDeltaDeserializer)));
     }
 
     /**
@@ -68,7 +95,10 @@ public class KafkaConfig {
         props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
         props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ChsDeltaSerializer.class);
         props.put(ProducerConfig.INTERCEPTOR_CLASSES_CONFIG,
-                RetryableTopicErrorInterceptor.class.getName());
+                List.of(RetryableTopicErrorInterceptor.class.getName(),
+                        RetryBackoffJitterInterceptor.class.getName()));
+        props.put(RetryBackoffJitterInterceptor.RETRY_TOPIC_CONFIG, retryTopic);
+        props.put(RetryBackoffJitterInterceptor.JITTER_CONFIG, backoffJitter);
 
         return new DefaultKafkaProducerFactory<>(
                 props, new StringSerializer(), chsDeltaSerializer);
@@ -89,10 +119,153 @@ public class KafkaConfig {
         factory.setConsumerFactory(kafkaConsumerFactory());
         factory.setConcurrency(listenerConcurrency);
         factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.RECORD);
+        factory.getContainerProperties().setConsumerRebalanceListener(contentHashStore);
+
+        // The raw record is needed to defer a retry when the retry budget is exhausted
+        MessagingMessageConverter recordConverter = new MessagingMessageConverter();
+        recordConverter.setRawRecordHeader(true);
+        factory.setRecordMessageConverter(recordConverter);
+
+        return factory;
+    }
+
+    /**
+     * Batch Kafka Listener Container Factory for the Main topic.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "charges.delta.batch", name = "enabled", havingValue = "true")
+    public ConcurrentKafkaListenerContainerFactory<String, ChsDelta> batchListenerContainerFactory(
+            @Value("${charges.delta.batch.ack-mode}") ContainerProperties.AckMode ackMode,
+            @Value("${charges.delta.batch.ack-time}") long ackTime,
+            @Value("${charges.delta.batch.max-poll-records}") int maxPollRecords,
+            BackOff batchPublishBackOff,
+            DeadLetterPublishingRecoverer batchDeadLetterPublishingRecoverer) {
+        Map<String, Object> props = consumerConfigs();
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
+
+        ConcurrentKafkaListenerContainerFactory<String, ChsDelta> factory
+                = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(withMetrics(new DefaultKafkaConsumerFactory<>(props,
+                new StringDeserializer(), new ErrorHandlingDeserializer<>(chsDeltaDeserializer))));
+        factory.setConcurrency(listenerConcurrency);
+        factory.setBatchListener(true);
+        // Records are recovered individually by the listener, so the batch only fails when a
+        // record cannot be published even after the listener has retried. The listener names
+        // that record, so the records before it are committed and only the rest are redelivered,
+        // backing off between attempts. Once the attempts are used up the record is published
+        // again here, and is redelivered if that fails too, so it is never skipped.
+        factory.setCommonErrorHandler(new DefaultErrorHandler(batchDeadLetterPublishingRecoverer,
+                batchPublishBackOff));
+        factory.getContainerProperties().setAckMode(ackMode);
+        factory.getContainerProperties().setAckTime(ackTime);
+        factory.getContainerProperties().setConsumerRebalanceListener(contentHashStore);
+
+        // Each record keeps its own headers, including the raw record needed to recover it
+        MessagingMessageConverter recordConverter = new MessagingMessageConverter();
+        recordConverter.setRawRecordHeader(true);
+        factory.setBatchMessageConverter(new BatchMessagingMessageConverter(recordConverter));
+
+        return factory;
+    }
+
+    /**
+     * Backoff between attempts to publish a record that failed in batch mode.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "charges.delta.batch", name = "enabled", havingValue = "true")
+    public BackOff batchPublishBackOff(
+            @Value("${charges.delta.retry-attempts}") int retryAttempts,
+            @Value("${charges.delta.backoff-delay}") long backoffDelay,
+            @Value("${charges.delta.backoff-multiplier}") double backoffMultiplier,
+            @Value("${charges.delta.backoff-max-delay}") long backoffMaxDelay) {
+        ExponentialBackOffWithMaxRetries backOff = new ExponentialBackOffWithMaxRetries(retryAttempts);
+        backOff.setInitialInterval(backoffDelay);
+        backOff.setMultiplier(backoffMultiplier);
+        backOff.setMaxInterval(backoffMaxDelay);
+        return backOff;
+    }
+
+    /**
+     * Kafka Listener Container Factory for the Retry topic when running in batch mode.
+     *
+     * <p>Retries are made in place from the single Retry topic, which has no backoff timestamp
+     * to pause on, so a retry budget cannot defer them and batch mode fails to start with one.
+     * A backoff multiplier above 1 moves record mode onto delay tier topics that batch mode
+     * neither publishes to nor consumes, so batch mode also fails to start with one.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "charges.delta.batch", name = "enabled", havingValue = "true")
+    public ConcurrentKafkaListenerContainerFactory<String, ChsDelta>
+            batchRetryListenerContainerFactory(
+            DeadLetterPublishingRecoverer batchDeadLetterPublishingRecoverer,
+            @Value("${charges.delta.retry-attempts}") int retryAttempts,
+            @Value("${charges.delta.backoff-delay}") long backoffDelay,
+            @Value("${charges.delta.backoff-multiplier}") double backoffMultiplier,
+            @Value("${charges.delta.backoff-max-delay}") long backoffMaxDelay,
+            @Value("${charges.delta.retry-concurrency}") int retryConcurrency,
+            @Value("${charges.delta.retry-budget.enabled}") boolean retryBudgetEnabled) {
+        if (retryBudgetEnabled) {
+            throw new IllegalStateException("charges.delta.retry-budget.enabled is not supported "
+                    + "with charges.delta.batch.enabled");
+        }
+        if (backoffMultiplier > 1) {
+            throw new IllegalStateException("charges.delta.backoff-multiplier above 1 is not "
+                    + "supported with charges.delta.batch.enabled");
+        }
+        // The first attempt was made on the Main topic and the first delivery from the Retry
+        // topic is not a redelivery.
+        ExponentialBackOffWithMaxRetries backOff =
+                new ExponentialBackOffWithMaxRetries(Math.max(0, retryAttempts - 2));
+        backOff.setInitialInterval(backoffDelay);
+        backOff.setMultiplier(backoffMultiplier);
+        backOff.setMaxInterval(backoffMaxDelay);
+        DefaultErrorHandler errorHandler = new DefaultErrorHandler(
+                batchDeadLetterPublishingRecoverer, backOff);
+        errorHandler.addNotRetryableExceptions(NonRetryableErrorException.class);
+
+        ConcurrentKafkaListenerContainerFactory<String, ChsDelta> factory
+                = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(kafkaConsumerFactory());
+        factory.setConcurrency(retryConcurrency);
+        factory.setCommonErrorHandler(errorHandler);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.RECORD);
+        factory.getContainerProperties().setDeliveryAttemptHeader(true);
+        factory.getContainerProperties().setConsumerRebalanceListener(contentHashStore);
 
         return factory;
     }
 
+    /**
+     * Publishes records that failed in batch mode. Records from the Main topic go to the Retry
+     * topic, unless the failure is non-retryable, and records from the Retry topic go to the
+     * Error topic.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "charges.delta.batch", name = "enabled", havingValue = "true")
+    public DeadLetterPublishingRecoverer batchDeadLetterPublishingRecoverer(
+            @Value("${charges.delta.topic}") String topic,
+            @Value("${charges.delta.group-id}") String groupId) {
+        String retryTopic = String.format("%s-%s-retry", topic, groupId);
+        String errorTopic = String.format("%s-%s-error", topic, groupId);
+
+        DeadLetterPublishingRecoverer recoverer = new DeadLetterPublishingRecoverer(kafkaTemplate(),
+                (consumerRecord, ex) -> new TopicPartition(topic.equals(consumerRecord.topic())
+                        && ErrorCategory.of(ex) == ErrorCategory.RETRYABLE
+                        ? retryTopic : errorTopic, -1));
+        recoverer.setHeadersFunction(ErrorCategory::headers);
+        return recoverer;
+    }
+
+    /**
+     * Publishes the Kafka client metrics of each consumer, including the per-partition
+     * {@code kafka.consumer.fetch.manager.records.lag} of the Main and Retry topics.
+     */
+    private ConsumerFactory<String, ChsDelta> withMetrics(
+            DefaultKafkaConsumerFactory<String, ChsDelta> consumerFactory) {
+        consumerFactory.addListener(new MicrometerConsumerListener<>(meterRegistry));
+        return consumerFactory;
+    }
+
     private Map<String, Object> consumerConfigs() {
         Map<String, Object> props = new HashMap<>();
 
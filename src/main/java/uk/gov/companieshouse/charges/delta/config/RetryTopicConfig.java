@@ -0,0 +1,21 @@
+package uk.gov.companieshouse.charges.delta.config;
+
+import java.util.function.Consumer;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.retrytopic.DeadLetterPublishingRecovererFactory;
+import org.springframework.kafka.retrytopic.RetryTopicConfigurationSupport;
+import uk.gov.companieshouse.charges.delta.exception.ErrorCategory;
+
+/**
+ * Adds the {@link ErrorCategory} header to records published to the retry and error topics.
+ */
+@Configuration
+public class RetryTopicConfig extends RetryTopicConfigurationSupport {
+
+    @Override
+    protected Consumer<DeadLetterPublishingRecovererFactory> configureDeadLetterPublishingContainerFactory() {
+        // Set on the factory so the header is added alongside the retry topic headers, which the
+        // factory writes with its own headers function
+        return factory -> factory.setHeadersFunction(ErrorCategory::headers);
+    }
+}
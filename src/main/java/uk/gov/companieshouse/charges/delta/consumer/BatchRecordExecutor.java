@@ -0,0 +1,17 @@
+package uk.gov.companieshouse.charges.delta.consumer;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Runs an action for every record of a batch, returning only once all of them have completed.
+ */
+public interface BatchRecordExecutor {
+
+    /**
+     * Runs the action for each record. Records with the same non-null key are run one after
+     * another in batch order; a record with a null key is unrelated to any other record.
+     */
+    <T> void execute(List<T> records, Function<T, String> keyFunction, Consumer<T> action);
+}
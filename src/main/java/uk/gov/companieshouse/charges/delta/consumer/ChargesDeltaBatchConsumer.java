@@ -0,0 +1,217 @@
+package uk.gov.companieshouse.charges.delta.consumer;
+
+import static uk.gov.companieshouse.charges.delta.ChargesDeltaConsumerApplication.NAMESPACE;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.ListenerExecutionFailedException;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.stereotype.Component;
+import org.springframework.util.backoff.BackOff;
+import org.springframework.util.backoff.BackOffExecution;
+import uk.gov.companieshouse.charges.delta.exception.NonRetryableErrorException;
+import uk.gov.companieshouse.charges.delta.logging.DataMapHolder;
+import uk.gov.companieshouse.charges.delta.logging.MessageLogSampler;
+import uk.gov.companieshouse.delta.ChsDelta;
+import uk.gov.companieshouse.logging.Logger;
+import uk.gov.companieshouse.logging.LoggerFactory;
+
+/**
+ * Batch mode consumer, enabled with {@code charges.delta.batch.enabled}.
+ *
+ * <p>Main topic records are received in batches and committed together. Each record is handled
+ * in isolation: a failed record is published to the retry or error topic and the rest of the
+ * batch carries on, so a single bad delta never causes the whole batch to be redelivered.
+ * Records are run by the configured {@link BatchRecordExecutor}, keyed on company number and
+ * charge id. With {@code charges.delta.batch.coalesce} a record superseded by a later delta for
+ * the same charge in the same batch is skipped; its offset is committed with the batch.
+ * Records on the retry topic are consumed one at a time and retried in place before being
+ * published to the error topic. Batch mode only uses the single {@code -retry} topic, so it does
+ * not start with a backoff multiplier above 1, which moves record mode onto delay tier topics.
+ *
+ * <p>When a failed record cannot be published the publish is retried in place, backing off as
+ * set by {@code charges.delta.backoff-*} for at most {@code charges.delta.retry-attempts}
+ * retries, so the records after it are not redelivered and processed twice. Once one record has
+ * used up its retries the publisher is treated as unavailable for the rest of the batch. The
+ * earliest record that could not be published is then reported to the container error handler:
+ * the records before it are committed and it is redelivered with the records after it, so it is
+ * never skipped. The backoff must fit within {@code max.poll.interval.ms}.
+ */
+@Component
+@ConditionalOnProperty(prefix = "charges.delta.batch", name = "enabled", havingValue = "true")
+public class ChargesDeltaBatchConsumer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(NAMESPACE);
+    private static final int MAIN_TOPIC_ATTEMPT = 1;
+
+    private final ChargesDeltaMessageHandler messageHandler;
+    private final DeadLetterPublishingRecoverer recoverer;
+    private final BatchRecordExecutor recordExecutor;
+    private final DeltaSummaryReader summaryReader;
+    private final MessageLogSampler sampler;
+    private final BackOff publishBackOff;
+    private final String groupId;
+    private final boolean coalesce;
+
+    /**
+     * Constructor.
+     */
+    public ChargesDeltaBatchConsumer(ChargesDeltaMessageHandler messageHandler,
+                                     DeadLetterPublishingRecoverer batchDeadLetterPublishingRecoverer,
+                                     BatchRecordExecutor recordExecutor,
+                                     DeltaSummaryReader summaryReader,
+                                     MessageLogSampler sampler,
+                                     BackOff batchPublishBackOff,
+                                     @Value("${charges.delta.group-id}") String groupId,
+                                     @Value("${charges.delta.batch.coalesce}") boolean coalesce) {
+        this.messageHandler = messageHandler;
+        this.recoverer = batchDeadLetterPublishingRecoverer;
+        this.recordExecutor = recordExecutor;
+        this.summaryReader = summaryReader;
+        this.sampler = sampler;
+        this.publishBackOff = batchPublishBackOff;
+        this.groupId = groupId;
+        this.coalesce = coalesce;
+    }
+
+    /**
+     * Receives batches of Main topic messages.
+     */
+    @KafkaListener(topics = "${charges.delta.topic}",
+            groupId = "${charges.delta.group-id}",
+            containerFactory = "batchListenerContainerFactory")
+    public void receiveMainMessages(List<Message<ChsDelta>> messages) {
+        // Failures that could not be published, keyed on the raw record; written by workers
+        Map<ConsumerRecord<?, ?>, Exception> unpublished =
+                Collections.synchronizedMap(new IdentityHashMap<>());
+        List<Message<ChsDelta>> deserialised = new ArrayList<>(messages.size());
+        for (Message<ChsDelta> message : messages) {
+            if (isDeserialised(message)) {
+                deserialised.add(message);
+            } else {
+                recover(message, new NonRetryableErrorException(
+                        "Unable to deserialise ChsDelta payload"), unpublished);
+            }
+        }
+
+        // Summaries are read at most once per record, always on the listener thread
+        Map<Message<ChsDelta>, DeltaSummary> summaries = new IdentityHashMap<>();
+        Function<Message<ChsDelta>, DeltaSummary> summaryFunction = message ->
+                summaries.computeIfAbsent(message, m -> summaryReader.read(m.getPayload()));
+
+        List<Message<ChsDelta>> toProcess = deserialised;
+        if (coalesce) {
+            toProcess = DeltaCoalescer.coalesce(deserialised, summaryFunction);
+            if (toProcess.size() < deserialised.size() && sampler.sample()) {
+                LOGGER.info(String.format("Skipping %d superseded deltas in batch of %d",
+                        deserialised.size() - toProcess.size(), messages.size()),
+                        DataMapHolder.getLogMap());
+            }
+        }
+        recordExecutor.execute(toProcess, message -> summaryFunction.apply(message).getKey(),
+                message -> handleMainMessage(message, unpublished));
+
+        for (Message<ChsDelta> message : messages) {
+            ConsumerRecord<?, ?> consumerRecord = rawRecord(message);
+            Exception failure = unpublished.get(consumerRecord);
+            if (failure != null) {
+                throw new BatchListenerFailedException("Unable to publish failed record", failure,
+                        consumerRecord);
+            }
+        }
+    }
+
+    /**
+     * Receives Retry topic messages. Redelivery and publishing to the error topic are managed by
+     * the container error handler.
+     */
+    @KafkaListener(topics = "${charges.delta.topic}-${charges.delta.group-id}-retry",
+            groupId = "${charges.delta.group-id}",
+            containerFactory = "batchRetryListenerContainerFactory")
+    public void receiveRetryMessages(Message<ChsDelta> message,
+                                     @Header(name = KafkaHeaders.DELIVERY_ATTEMPT, required = false) Integer deliveryAttempt,
+                                     @Header(KafkaHeaders.RECEIVED_TOPIC) String topic,
+                                     @Header(KafkaHeaders.RECEIVED_PARTITION) Integer partition,
+                                     @Header(KafkaHeaders.OFFSET) Long offset) {
+        int attempt = MAIN_TOPIC_ATTEMPT + Optional.ofNullable(deliveryAttempt).orElse(1);
+        messageHandler.handle(message, attempt, topic, partition, offset);
+    }
+
+    private void handleMainMessage(Message<ChsDelta> message,
+                                   Map<ConsumerRecord<?, ?>, Exception> unpublished) {
+        MessageHeaders headers = message.getHeaders();
+        try {
+            messageHandler.handle(message, MAIN_TOPIC_ATTEMPT,
+                    headers.get(KafkaHeaders.RECEIVED_TOPIC, String.class),
+                    headers.get(KafkaHeaders.RECEIVED_PARTITION, Integer.class),
+                    headers.get(KafkaHeaders.OFFSET, Long.class));
+        } catch (Exception ex) {
+            recover(message, ex, unpublished);
+        }
+    }
+
+    private boolean isDeserialised(Message<?> message) {
+        // Records that failed deserialisation arrive with a KafkaNull payload
+        return message.getPayload() instanceof ChsDelta;
+    }
+
+    private void recover(Message<?> message, Exception ex,
+                         Map<ConsumerRecord<?, ?>, Exception> unpublished) {
+        ConsumerRecord<?, ?> consumerRecord = rawRecord(message);
+        if (consumerRecord == null) {
+            throw new IllegalStateException("Raw consumer record missing from batch message", ex);
+        }
+        LOGGER.info(String.format("Publishing failed record from %s-%d@%d",
+                consumerRecord.topic(), consumerRecord.partition(), consumerRecord.offset()),
+                DataMapHolder.getLogMap());
+        // Wrapped the same way as record mode so downstream headers are unchanged
+        Exception failure = new ListenerExecutionFailedException(
+                "Batch listener failed to process record", groupId, ex);
+        BackOffExecution backOffExecution = publishBackOff.start();
+        while (true) {
+            try {
+                recoverer.accept(consumerRecord, failure);
+                return;
+            } catch (RuntimeException publishException) {
+                // Once a record could not be published the rest of the batch is not retried
+                long interval = unpublished.isEmpty() ? backOffExecution.nextBackOff()
+                        : BackOffExecution.STOP;
+                if (interval == BackOffExecution.STOP || !sleep(interval)) {
+                    LOGGER.error("Unable to publish failed record", publishException,
+                            DataMapHolder.getLogMap());
+                    ex.addSuppressed(publishException);
+                    unpublished.put(consumerRecord, ex);
+                    return;
+                }
+            }
+        }
+    }
+
+    private static boolean sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException interruptedException) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static ConsumerRecord<?, ?> rawRecord(Message<?> message) {
+        return message.getHeaders().get(KafkaHeaders.RAW_DATA, ConsumerRecord.class);
+    }
+}
@@ -1,41 +1,57 @@
 package uk.gov.companieshouse.charges.delta.consumer;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.annotation.RetryableTopic;
 import org.springframework.kafka.retrytopic.DltStrategy;
 import org.springframework.kafka.retrytopic.SameIntervalTopicReuseStrategy;
 import org.springframework.kafka.retrytopic.RetryTopicHeaders;
+import org.springframework.kafka.retrytopic.TopicSuffixingStrategy;
 import org.springframework.kafka.support.KafkaHeaders;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.retry.annotation.Backoff;
 import org.springframework.stereotype.Component;
 import uk.gov.companieshouse.charges.delta.exception.NonRetryableErrorException;
-import uk.gov.companieshouse.charges.delta.processor.ChargesDeltaProcessor;
 import uk.gov.companieshouse.delta.ChsDelta;
 
 
 @Component
+@ConditionalOnProperty(prefix = "charges.delta.batch", name = "enabled", havingValue = "false",
+        matchIfMissing = true)
 public class ChargesDeltaConsumer {
 
-    private final ChargesDeltaProcessor deltaProcessor;
+    private final ChargesDeltaMessageHandler messageHandler;
 
     @Autowired
-    public ChargesDeltaConsumer(ChargesDeltaProcessor deltaProcessor) {
-        this.deltaProcessor = deltaProcessor;
+    public ChargesDeltaConsumer(ChargesDeltaMessageHandler messageHandler) {
+        this.messageHandler = messageHandler;
     }
 
     /**
      * Receives Main topic messages.
+     *
+     * <p>With the default backoff multiplier of 1 failed messages are retried from a single
+     * {@code -retry} topic at a fixed delay. A larger multiplier backs off exponentially, up to
+     * {@code charges.delta.backoff-max-delay}, through delay tier topics {@code -retry-0},
+     * {@code -retry-1} and so on, the last being reused once the maximum delay is reached. Those
+     * topics must exist, as topics are not auto-created. Tier delays are fixed when the topics
+     * are configured; {@code charges.delta.backoff-jitter} spreads each record's due time around
+     * its tier delay as it is published. Retry and error topic containers run with
+     * {@code charges.delta.retry-concurrency}.
      */
     @RetryableTopic(attempts = "${charges.delta.retry-attempts}",
-            backoff = @Backoff(delayExpression = "${charges.delta.backoff-delay}"),
+            backoff = @Backoff(delayExpression = "${charges.delta.backoff-delay}",
+                    multiplierExpression = "${charges.delta.backoff-multiplier}",
+                    maxDelayExpression = "${charges.delta.backoff-max-delay}"),
             sameIntervalTopicReuseStrategy = SameIntervalTopicReuseStrategy.SINGLE_TOPIC,
+            topicSuffixingStrategy = TopicSuffixingStrategy.SUFFIX_WITH_INDEX_VALUE,
             retryTopicSuffix = "-${charges.delta.group-id}-retry",
             dltTopicSuffix = "-${charges.delta.group-id}-error",
             dltStrategy = DltStrategy.FAIL_ON_ERROR,
             autoCreateTopics = "false",
+            concurrency = "${charges.delta.retry-concurrency}",
             exclude = NonRetryableErrorException.class)
     @KafkaListener(topics = "${charges.delta.topic}",
             groupId = "${charges.delta.group-id}",
@@ -46,11 +62,7 @@ public class ChargesDeltaConsumer {
                                     @Header(KafkaHeaders.RECEIVED_PARTITION) Integer partition,
                                     @Header(KafkaHeaders.OFFSET) Long offset) {
 
-        if (Boolean.TRUE.equals(message.getPayload().getIsDelete())) {
-            deltaProcessor.processDelete(message);
-        } else {
-            deltaProcessor.processDelta(message);
-        }
+        messageHandler.handle(message, attempt, topic, partition, offset);
     }
 
 }
@@ -0,0 +1,99 @@
+package uk.gov.companieshouse.charges.delta.consumer;
+
+import static uk.gov.companieshouse.charges.delta.ChargesDeltaConsumerApplication.NAMESPACE;
+
+import java.math.BigInteger;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.retrytopic.RetryTopicHeaders;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.Message;
+import org.springframework.stereotype.Component;
+import uk.gov.companieshouse.charges.delta.exception.RetryableErrorException;
+import uk.gov.companieshouse.charges.delta.logging.DataMapHolder;
+import uk.gov.companieshouse.charges.delta.processor.ChargesDeltaProcessor;
+import uk.gov.companieshouse.delta.ChsDelta;
+import uk.gov.companieshouse.logging.Logger;
+import uk.gov.companieshouse.logging.LoggerFactory;
+
+/**
+ * Handles a single charges delta message regardless of the listener mode it was received in.
+ * Structured logging for each message is applied around {@link #handle}.
+ *
+ * <p>A retry is only run when the {@link RetryBudget} allows it. Otherwise the record is
+ * published again to the same retry topic partition, due after
+ * {@code charges.delta.retry-budget.defer-delay} milliseconds, and its offset is committed. The
+ * retry topic container pauses the partition until the record is due, so the retry is delayed
+ * without using up an attempt and is never sent to the error topic because the budget ran out.
+ */
+@Component
+public class ChargesDeltaMessageHandler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(NAMESPACE);
+
+    private final ChargesDeltaProcessor deltaProcessor;
+    private final RetryBudget retryBudget;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final long deferDelay;
+
+    /**
+     * Constructor.
+     */
+    public ChargesDeltaMessageHandler(ChargesDeltaProcessor deltaProcessor,
+                                      RetryBudget retryBudget,
+                                      KafkaTemplate<String, Object> kafkaTemplate,
+                                      @Value("${charges.delta.retry-budget.defer-delay}") long deferDelay) {
+        this.deltaProcessor = deltaProcessor;
+        this.retryBudget = retryBudget;
+        this.kafkaTemplate = kafkaTemplate;
+        this.deferDelay = deferDelay;
+    }
+
+    /**
+     * Processes a delta or delete message.
+     */
+    public void handle(Message<ChsDelta> message, Integer attempt, String topic,
+                       Integer partition, Long offset) {
+        if (Optional.ofNullable(attempt).orElse(1) > 1 && !retryBudget.tryAcquire()) {
+            defer(message);
+            return;
+        }
+        if (Boolean.TRUE.equals(message.getPayload().getIsDelete())) {
+            deltaProcessor.processDelete(message);
+        } else {
+            deltaProcessor.processDelta(message);
+        }
+    }
+
+    private void defer(Message<ChsDelta> message) {
+        ConsumerRecord<?, ?> consumerRecord =
+                message.getHeaders().get(KafkaHeaders.RAW_DATA, ConsumerRecord.class);
+        if (consumerRecord == null) {
+            throw new IllegalStateException("Raw consumer record missing from retry message");
+        }
+        LOGGER.info(String.format("Deferring retry for %d ms as the retry budget is exhausted",
+                deferDelay), DataMapHolder.getLogMap());
+
+        // The attempts and original record headers are kept; only the due time changes
+        Headers headers = new RecordHeaders(consumerRecord.headers().toArray());
+        headers.remove(RetryTopicHeaders.DEFAULT_HEADER_BACKOFF_TIMESTAMP);
+        headers.add(RetryTopicHeaders.DEFAULT_HEADER_BACKOFF_TIMESTAMP,
+                BigInteger.valueOf(System.currentTimeMillis() + deferDelay).toByteArray());
+        try {
+            kafkaTemplate.send(new ProducerRecord<>(consumerRecord.topic(),
+                    consumerRecord.partition(), (String) consumerRecord.key(),
+                    consumerRecord.value(), headers)).get();
+        } catch (ExecutionException ex) {
+            throw new RetryableErrorException("Unable to defer retry", ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RetryableErrorException("Interrupted deferring retry", ex);
+        }
+    }
+}
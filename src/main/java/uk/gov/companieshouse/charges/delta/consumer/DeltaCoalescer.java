@@ -0,0 +1,52 @@
+package uk.gov.companieshouse.charges.delta.consumer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import uk.gov.companieshouse.charges.delta.store.DeltaAtComparator;
+
+/**
+ * Drops deltas that are superseded by a later delta for the same charge in the same batch.
+ */
+final class DeltaCoalescer {
+
+    private DeltaCoalescer() {
+    }
+
+    /**
+     * Returns the records to process in their original order. For each charge only the record
+     * with the latest {@code delta_at} is kept, whether it is an upsert or a delete; when two
+     * records have the same {@code delta_at} the later one is kept. Records without a key or a
+     * {@code delta_at} are always kept.
+     */
+    static <T> List<T> coalesce(List<T> records, Function<T, DeltaSummary> summaryFunction) {
+        Map<String, Integer> latestByKey = new HashMap<>();
+        List<DeltaSummary> summaries = new ArrayList<>(records.size());
+        for (int i = 0; i < records.size(); i++) {
+            DeltaSummary summary = summaryFunction.apply(records.get(i));
+            summaries.add(summary);
+            if (isCoalescable(summary)) {
+                final int index = i;
+                latestByKey.merge(summary.getKey(), i, (current, candidate) ->
+                        DeltaAtComparator.INSTANCE.compare(summary.getDeltaAt(),
+                                summaries.get(current).getDeltaAt()) >= 0
+                                ? index : current);
+            }
+        }
+
+        List<T> result = new ArrayList<>(latestByKey.size());
+        for (int i = 0; i < records.size(); i++) {
+            DeltaSummary summary = summaries.get(i);
+            if (!isCoalescable(summary) || latestByKey.get(summary.getKey()) == i) {
+                result.add(records.get(i));
+            }
+        }
+        return result;
+    }
+
+    private static boolean isCoalescable(DeltaSummary summary) {
+        return summary.getKey() != null && summary.getDeltaAt() != null;
+    }
+}
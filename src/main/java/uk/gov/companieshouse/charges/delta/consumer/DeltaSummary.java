@@ -0,0 +1,78 @@
+package uk.gov.companieshouse.charges.delta.consumer;
+
+import java.util.Objects;
+
+/**
+ * The identifying fields of a charges delta, read without mapping the whole delta.
+ */
+public final class DeltaSummary {
+
+    private final String companyNumber;
+    private final String chargeId;
+    private final String deltaAt;
+    private final boolean delete;
+
+    DeltaSummary(String companyNumber, String chargeId, String deltaAt, boolean delete) {
+        this.companyNumber = companyNumber;
+        this.chargeId = chargeId;
+        this.deltaAt = deltaAt;
+        this.delete = delete;
+    }
+
+    public String getCompanyNumber() {
+        return companyNumber;
+    }
+
+    public String getChargeId() {
+        return chargeId;
+    }
+
+    public String getDeltaAt() {
+        return deltaAt;
+    }
+
+    public boolean isDelete() {
+        return delete;
+    }
+
+    /**
+     * Returns the company number and charge id identifying the charge, or null when the delta
+     * does not contain both.
+     */
+    public String getKey() {
+        if (companyNumber == null || chargeId == null || chargeId.isEmpty()) {
+            return null;
+        }
+        return companyNumber + "/" + chargeId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        DeltaSummary that = (DeltaSummary) o;
+        return delete == that.delete
+                && Objects.equals(companyNumber, that.companyNumber)
+                && Objects.equals(chargeId, that.chargeId)
+                && Objects.equals(deltaAt, that.deltaAt);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(companyNumber, chargeId, deltaAt, delete);
+    }
+
+    @Override
+    public String toString() {
+        return "DeltaSummary{"
+                + "companyNumber='" + companyNumber + '\''
+                + ", chargeId='" + chargeId + '\''
+                + ", deltaAt='" + deltaAt + '\''
+                + ", delete=" + delete
+                + '}';
+    }
+}
@@ -0,0 +1,63 @@
+package uk.gov.companieshouse.charges.delta.consumer;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.ObjectReader;
+import java.util.List;
+import org.springframework.stereotype.Component;
+import uk.gov.companieshouse.charges.delta.serialization.ChargesDeltaJsonDecoder;
+import uk.gov.companieshouse.delta.ChsDelta;
+
+/**
+ * Reads the identifying fields of a delta so records can be grouped by charge before they are
+ * processed. All other fields are skipped, which keeps this much cheaper than mapping the full
+ * {@code ChargesDelta}.
+ */
+@Component
+public class DeltaSummaryReader {
+
+    private final ObjectReader reader;
+
+    public DeltaSummaryReader(ChargesDeltaJsonDecoder jsonDecoder) {
+        this.reader = jsonDecoder.readerFor(DeltaFields.class);
+    }
+
+    /**
+     * Returns the summary of a delta. Fields that cannot be read are left null so the record still
+     * reaches the processor, which reports the problem.
+     */
+    public DeltaSummary read(ChsDelta payload) {
+        boolean delete = Boolean.TRUE.equals(payload.getIsDelete());
+        DeltaFields fields;
+        try {
+            fields = reader.readValue(payload.getData());
+        } catch (Exception ex) {
+            return new DeltaSummary(null, null, null, delete);
+        }
+        if (fields == null) {
+            return new DeltaSummary(null, null, null, delete);
+        }
+        if (delete) {
+            return new DeltaSummary(fields.companyNumber, fields.chargesId, fields.deltaAt, true);
+        }
+        if (fields.charges == null || fields.charges.isEmpty() || fields.charges.get(0) == null) {
+            return new DeltaSummary(null, null, null, false);
+        }
+        DeltaFields charge = fields.charges.get(0);
+        return new DeltaSummary(charge.companyNumber, charge.id, charge.deltaAt, false);
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    static class DeltaFields {
+        @JsonProperty("charges")
+        List<DeltaFields> charges;
+        @JsonProperty("company_number")
+        String companyNumber;
+        @JsonProperty("id")
+        String id;
+        @JsonProperty("charges_id")
+        String chargesId;
+        @JsonProperty("delta_at")
+        String deltaAt;
+    }
+}
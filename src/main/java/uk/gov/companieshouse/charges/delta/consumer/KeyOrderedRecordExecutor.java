@@ -0,0 +1,132 @@
+package uk.gov.companieshouse.charges.delta.consumer;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fans the records of a batch out to a pool of worker threads. Records sharing a key are run
+ * in batch order on a single worker, so a charge is never updated concurrently or out of order,
+ * while different charges in the same partition are processed in parallel. The listener thread
+ * waits for the whole batch, so offsets are only committed once every record before them is done.
+ *
+ * <p>With {@code charges.delta.batch.virtual-threads} each key group runs on its own virtual
+ * thread instead of a fixed pool. {@code charges.delta.batch.max-in-flight} bounds the key groups
+ * running at once across every listener container sharing this executor, and with it the
+ * blocking charges-data-api calls in flight. A single batch holds at most
+ * {@code charges.delta.batch.max-poll-records} groups, so a larger limit has no effect. Each
+ * running group borrows a client from the {@code api.client-pool}, so with virtual threads the
+ * limit may not exceed {@code api.client-pool.max-size}; otherwise groups would queue for a
+ * client and fail with a retryable error once the borrow timeout passed.
+ *
+ * <p>When the limit is reached the listener thread waits for running groups to finish rather than
+ * pausing the container. The listener does not return until the whole batch is done, so no
+ * further records are fetched while it waits, and a container pause would only take effect at
+ * the next poll, once the batch has completed.
+ */
+@Component
+@ConditionalOnProperty(prefix = "charges.delta.batch", name = "processing-mode",
+        havingValue = "KEY_ORDERED")
+class KeyOrderedRecordExecutor implements BatchRecordExecutor, DisposableBean {
+
+    private static final String THREAD_NAME_PREFIX = "charges-delta-worker-";
+
+    private final ExecutorService workers;
+    private final Semaphore inFlight;
+
+    KeyOrderedRecordExecutor(@Value("${charges.delta.batch.worker-threads}") int workerThreads,
+                             @Value("${charges.delta.batch.virtual-threads}") boolean virtualThreads,
+                             @Value("${charges.delta.batch.max-in-flight}") int maxInFlight,
+                             @Value("${api.client-pool.max-size}") int clientPoolMaxSize) {
+        if (maxInFlight < 1) {
+            throw new IllegalStateException("charges.delta.batch.max-in-flight must be at least 1");
+        }
+        if (virtualThreads && maxInFlight > clientPoolMaxSize) {
+            throw new IllegalStateException("charges.delta.batch.max-in-flight must not exceed "
+                    + "api.client-pool.max-size (" + clientPoolMaxSize + ") with virtual threads");
+        }
+        this.workers = virtualThreads
+                ? Executors.newThreadPerTaskExecutor(
+                        Thread.ofVirtual().name(THREAD_NAME_PREFIX, 1).factory())
+                : newWorkerPool(workerThreads);
+        this.inFlight = new Semaphore(maxInFlight);
+    }
+
+    @Override
+    public <T> void execute(List<T> records, Function<T, String> keyFunction, Consumer<T> action) {
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (List<T> group : groupByKey(records, keyFunction)) {
+            acquireInFlight();
+            try {
+                futures.add(CompletableFuture.runAsync(() -> group.forEach(action), workers)
+                        .whenComplete((result, ex) -> inFlight.release()));
+            } catch (RuntimeException ex) {
+                // Not submitted, for example once the workers have been shut down
+                inFlight.release();
+                throw ex;
+            }
+        }
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw ex;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        workers.shutdown();
+    }
+
+    private void acquireInFlight() {
+        try {
+            inFlight.acquire();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for in-flight records", ex);
+        }
+    }
+
+    private static ExecutorService newWorkerPool(int workerThreads) {
+        AtomicInteger threadCount = new AtomicInteger();
+        return Executors.newFixedThreadPool(workerThreads, runnable -> {
+            Thread thread = new Thread(runnable, THREAD_NAME_PREFIX + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    static <T> List<List<T>> groupByKey(List<T> records, Function<T, String> keyFunction) {
+        Map<String, List<T>> groups = new LinkedHashMap<>();
+        List<List<T>> result = new ArrayList<>();
+        for (T item : records) {
+            String key = keyFunction.apply(item);
+            if (key == null) {
+                result.add(List.of(item));
+            } else {
+                groups.computeIfAbsent(key, k -> {
+                    List<T> group = new ArrayList<>();
+                    result.add(group);
+                    return group;
+                }).add(item);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,75 @@
+package uk.gov.companieshouse.charges.delta.consumer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Token bucket shared by all listeners of this instance that limits how fast retries are run.
+ *
+ * <p>Each message taken from a retry topic takes a token before it is processed. The bucket
+ * holds at most {@code charges.delta.retry-budget.capacity} tokens and refills at
+ * {@code charges.delta.retry-budget.refill-per-second}, so during an outage retries are capped at
+ * the refill rate and do not crowd out fresh deltas. A retry that finds the bucket empty is
+ * deferred, never dropped. The bucket is held in memory by each instance, so the limit applies
+ * per running task: across the service retries may run at the refill rate times the number of
+ * tasks. Disabled unless {@code charges.delta.retry-budget.enabled} is set.
+ */
+@Component
+public class RetryBudget {
+
+    private final boolean enabled;
+    private final double capacity;
+    private final double refillPerNano;
+    private final LongSupplier nanoTime;
+    private final Counter deferredCounter;
+    private double tokens;
+    private long lastRefill;
+
+    /**
+     * Constructor.
+     */
+    @Autowired
+    public RetryBudget(@Value("${charges.delta.retry-budget.enabled}") boolean enabled,
+                       @Value("${charges.delta.retry-budget.capacity}") int capacity,
+                       @Value("${charges.delta.retry-budget.refill-per-second}") double refillPerSecond,
+                       MeterRegistry meterRegistry) {
+        this(enabled, capacity, refillPerSecond, meterRegistry, System::nanoTime);
+    }
+
+    RetryBudget(boolean enabled, int capacity, double refillPerSecond, MeterRegistry meterRegistry,
+                LongSupplier nanoTime) {
+        this.enabled = enabled;
+        this.capacity = capacity;
+        this.refillPerNano = refillPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.nanoTime = nanoTime;
+        this.tokens = capacity;
+        this.lastRefill = nanoTime.getAsLong();
+        this.deferredCounter = Counter.builder("charges.delta.retry.budget.deferred")
+                .description("Retries deferred because the retry budget was exhausted")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Takes a token for a retry, returning false when none is available and the retry must be
+     * deferred.
+     */
+    public synchronized boolean tryAcquire() {
+        if (!enabled) {
+            return true;
+        }
+        long now = nanoTime.getAsLong();
+        tokens = Math.min(capacity, tokens + (now - lastRefill) * refillPerNano);
+        lastRefill = now;
+        if (tokens >= 1) {
+            tokens--;
+            return true;
+        }
+        deferredCounter.increment();
+        return false;
+    }
+}
@@ -0,0 +1,21 @@
+package uk.gov.companieshouse.charges.delta.consumer;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs every record of a batch on the listener thread in offset order.
+ */
+@Component
+@ConditionalOnProperty(prefix = "charges.delta.batch", name = "processing-mode",
+        havingValue = "SEQUENTIAL", matchIfMissing = true)
+class SequentialRecordExecutor implements BatchRecordExecutor {
+
+    @Override
+    public <T> void execute(List<T> records, Function<T, String> keyFunction, Consumer<T> action) {
+        records.forEach(action);
+    }
+}
@@ -0,0 +1,58 @@
+package uk.gov.companieshouse.charges.delta.exception;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+
+/**
+ * Category of a failure, written as a single byte {@value #HEADER} header on records published
+ * to the retry and error topics so they can be routed without decoding the exception headers.
+ */
+public enum ErrorCategory {
+
+    RETRYABLE((byte) 'R'),
+    NON_RETRYABLE((byte) 'N');
+
+    public static final String HEADER = "charges_delta_error_category";
+
+    private final byte code;
+
+    ErrorCategory(byte code) {
+        this.code = code;
+    }
+
+    /**
+     * Non-retryable when a {@link NonRetryableErrorException} is anywhere in the cause chain.
+     */
+    public static ErrorCategory of(Throwable ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof NonRetryableErrorException) {
+                return NON_RETRYABLE;
+            }
+        }
+        return RETRYABLE;
+    }
+
+    /**
+     * The category of a header value, or null when the header is absent or not recognised.
+     */
+    public static ErrorCategory of(Header header) {
+        if (header == null || header.value() == null || header.value().length != 1) {
+            return null;
+        }
+        for (ErrorCategory category : values()) {
+            if (category.code == header.value()[0]) {
+                return category;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Headers function for a {@code DeadLetterPublishingRecoverer}.
+     */
+    public static Headers headers(ConsumerRecord<?, ?> consumerRecord, Exception ex) {
+        return new RecordHeaders().add(HEADER, new byte[] {of(ex).code});
+    }
+}
@@ -0,0 +1,74 @@
+package uk.gov.companieshouse.charges.delta.exception;
+
+import java.math.BigInteger;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import org.apache.kafka.clients.producer.ProducerInterceptor;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.config.ConfigException;
+import org.apache.kafka.common.header.Header;
+import org.springframework.kafka.retrytopic.RetryTopicHeaders;
+
+/**
+ * Retry Backoff Jitter Interceptor.
+ *
+ * <p>Retry topic delays are fixed when the topics are configured, so deltas that fail together
+ * would all be retried together. For records bound for a topic starting with
+ * {@value #RETRY_TOPIC_CONFIG}, the time left until the backoff timestamp header is scaled by a
+ * random factor of up to {@value #JITTER_CONFIG} either side of one. The retry topic container
+ * reads the last backoff timestamp header, which is replaced here. A jitter of 0 leaves records
+ * unchanged.
+ */
+public class RetryBackoffJitterInterceptor implements ProducerInterceptor<String, Object> {
+
+    public static final String JITTER_CONFIG = "charges.delta.backoff-jitter";
+    public static final String RETRY_TOPIC_CONFIG = "charges.delta.retry-topic";
+
+    private double jitter;
+    private String retryTopic;
+
+    @Override
+    public ProducerRecord<String, Object> onSend(ProducerRecord<String, Object> record) {
+        if (jitter == 0 || !record.topic().startsWith(retryTopic)) {
+            return record;
+        }
+        Header backoffTimestamp = record.headers()
+                .lastHeader(RetryTopicHeaders.DEFAULT_HEADER_BACKOFF_TIMESTAMP);
+        if (backoffTimestamp == null) {
+            return record;
+        }
+        long now = System.currentTimeMillis();
+        long delay = new BigInteger(backoffTimestamp.value()).longValue() - now;
+        if (delay <= 0) {
+            return record;
+        }
+        double factor = 1 + jitter * (2 * ThreadLocalRandom.current().nextDouble() - 1);
+        record.headers().remove(RetryTopicHeaders.DEFAULT_HEADER_BACKOFF_TIMESTAMP);
+        record.headers().add(RetryTopicHeaders.DEFAULT_HEADER_BACKOFF_TIMESTAMP,
+                BigInteger.valueOf(now + Math.round(delay * factor)).toByteArray());
+        return record;
+    }
+
+    @Override
+    public void onAcknowledgement(RecordMetadata recordMetadata, Exception ex) {
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public void configure(Map<String, ?> map) {
+        Object configuredJitter = map.get(JITTER_CONFIG);
+        jitter = configuredJitter == null ? 0 : Double.parseDouble(configuredJitter.toString());
+        if (jitter < 0 || jitter >= 1) {
+            throw new ConfigException(JITTER_CONFIG, configuredJitter, "Must be at least 0 and below 1");
+        }
+        Object configuredRetryTopic = map.get(RETRY_TOPIC_CONFIG);
+        if (jitter > 0 && configuredRetryTopic == null) {
+            throw new ConfigException(RETRY_TOPIC_CONFIG, null, "Required when jitter is set");
+        }
+        retryTopic = configuredRetryTopic == null ? "" : configuredRetryTopic.toString();
+    }
+}
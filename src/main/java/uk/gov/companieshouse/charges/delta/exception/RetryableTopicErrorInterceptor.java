@@ -2,9 +2,10 @@ package uk.gov.companieshouse.charges.delta.exception;
 
 import static java.lang.String.format;
 import static org.springframework.kafka.support.KafkaHeaders.EXCEPTION_CAUSE_FQCN;
-import static org.springframework.kafka.support.KafkaHeaders.EXCEPTION_STACKTRACE;
 import static uk.gov.companieshouse.charges.delta.ChargesDeltaConsumerApplication.NAMESPACE;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.Map;
 
 import org.apache.kafka.clients.producer.ProducerInterceptor;
@@ -17,17 +18,23 @@ import uk.gov.companieshouse.logging.LoggerFactory;
 
 /**
  * Retryable Topic Error Interceptor.
+ *
+ * <p>Records bound for the error topic are redirected to the invalid topic when their
+ * {@link ErrorCategory} header marks the failure as non-retryable. Records published before the
+ * header was written fall back to the exception cause class name header.
  */
 public class RetryableTopicErrorInterceptor implements ProducerInterceptor<String, Object> {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(NAMESPACE);
+    private static final byte[] NON_RETRYABLE_CLASS_NAME =
+            NonRetryableErrorException.class.getName().getBytes(StandardCharsets.UTF_8);
 
     @Override
     public ProducerRecord<String, Object> onSend(ProducerRecord<String, Object> record) {
         String nextTopic = record.topic().contains("-error") ? getNextErrorTopic(record)
                 : record.topic();
-        LOGGER.info(format("Moving record into new topic: %s with value: %s",
-                nextTopic, record.value()), DataMapHolder.getLogMap());
+        LOGGER.info(format("Moving record with key: %s into new topic: %s",
+                record.key(), nextTopic), DataMapHolder.getLogMap());
         if (nextTopic.contains("-invalid")) {
             return new ProducerRecord<>(nextTopic, record.key(), record.value());
         }
@@ -48,13 +55,17 @@ public class RetryableTopicErrorInterceptor implements ProducerInterceptor<Strin
     }
 
     private String getNextErrorTopic(ProducerRecord<String, Object> record) {
-        Header header1 = record.headers().lastHeader(EXCEPTION_CAUSE_FQCN);
-        Header header2 = record.headers().lastHeader(EXCEPTION_STACKTRACE);
-        return ((header1 != null
-                && new String(header1.value()).contains(NonRetryableErrorException.class.getName()))
-                || (header2 != null
-                && new String(header2.value()).contains(
-                        NonRetryableErrorException.class.getName())))
+        return isNonRetryable(record)
                 ? record.topic().replace("-error", "-invalid") : record.topic();
     }
+
+    private static boolean isNonRetryable(ProducerRecord<String, Object> record) {
+        ErrorCategory category = ErrorCategory.of(record.headers().lastHeader(ErrorCategory.HEADER));
+        if (category != null) {
+            return category == ErrorCategory.NON_RETRYABLE;
+        }
+        Header causeClassName = record.headers().lastHeader(EXCEPTION_CAUSE_FQCN);
+        return causeClassName != null
+                && Arrays.equals(causeClassName.value(), NON_RETRYABLE_CLASS_NAME);
+    }
 }
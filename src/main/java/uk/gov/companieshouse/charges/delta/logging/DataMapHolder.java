@@ -1,34 +1,116 @@
 package uk.gov.companieshouse.charges.delta.logging;
 
 import uk.gov.companieshouse.logging.util.DataMap.Builder;
+import java.util.AbstractMap;
 import java.util.Map;
+import java.util.Set;
 
+/**
+ * Holds the structured logging context of the message being processed on the current thread.
+ *
+ * <p>{@link #getLogMap()} returns a view that only builds the log map the first time a logger
+ * reads it, so log lines at disabled levels never build one. The request id is kept alongside
+ * the builder and read without building the map. Whether the success path of the message is
+ * logged, as decided by {@link MessageLogSampler}, is also kept here; it defaults to true.
+ */
 public class DataMapHolder {
 
-    private static final ThreadLocal<Builder> DATAMAP_BUILDER
-        = ThreadLocal.withInitial(() -> new Builder().requestId("uninitialised"));
+    private static final String UNINITIALISED = "uninitialised";
+
+    private static final ThreadLocal<Context> CONTEXT = ThreadLocal.withInitial(Context::new);
 
     public static void initialise(String requestId) {
-        DATAMAP_BUILDER.get().requestId(requestId);
+        Context context = CONTEXT.get();
+        context.requestId = requestId;
+        context.builder.requestId(requestId);
     }
 
     private DataMapHolder() {}
 
     public static void clear() {
-        DATAMAP_BUILDER.remove();
+        CONTEXT.remove();
     }
 
     public static Builder get() {
-        return DATAMAP_BUILDER.get();
+        return CONTEXT.get().builder;
     }
 
     public static Map<String, Object> getLogMap() {
-        return DATAMAP_BUILDER.get()
-                .build()
-                .getLogMap();
+        return new LazyLogMap(CONTEXT.get().builder);
     }
-    
+
     public static String getRequestId() {
-        return (String) getLogMap().get("request_id");
+        return CONTEXT.get().requestId;
+    }
+
+    public static void sampled(boolean sampled) {
+        CONTEXT.get().sampled = sampled;
+    }
+
+    public static boolean isSampled() {
+        return CONTEXT.get().sampled;
+    }
+
+    private static final class Context {
+
+        private final Builder builder = new Builder().requestId(UNINITIALISED);
+        private String requestId = UNINITIALISED;
+        private boolean sampled = true;
+    }
+
+    /**
+     * Log map built from the context as it is when the map is first read. Like the built map it
+     * is mutable; a write builds the map first.
+     */
+    private static final class LazyLogMap extends AbstractMap<String, Object> {
+
+        private final Builder builder;
+        private Map<String, Object> logMap;
+
+        private LazyLogMap(Builder builder) {
+            this.builder = builder;
+        }
+
+        private Map<String, Object> logMap() {
+            if (logMap == null) {
+                logMap = builder.build().getLogMap();
+            }
+            return logMap;
+        }
+
+        @Override
+        public Set<Entry<String, Object>> entrySet() {
+            return logMap().entrySet();
+        }
+
+        @Override
+        public Object get(Object key) {
+            return logMap().get(key);
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return logMap().containsKey(key);
+        }
+
+        @Override
+        public int size() {
+            return logMap().size();
+        }
+
+        @Override
+        public Object put(String key, Object value) {
+            return logMap().put(key, value);
+        }
+
+        @Override
+        public Object remove(Object key) {
+            return logMap().remove(key);
+        }
+
+        @Override
+        public void clear() {
+            logMap().clear();
+        }
     }
 }
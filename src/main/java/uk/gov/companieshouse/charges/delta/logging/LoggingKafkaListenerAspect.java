@@ -25,16 +25,21 @@ class LoggingKafkaListenerAspect {
     private static final String EXCEPTION_MESSAGE = "%s exception thrown";
 
     private final int maxAttempts;
+    private final MessageLogSampler sampler;
 
-    LoggingKafkaListenerAspect(@Value("${charges.delta.retry-attempts}") int maxAttempts) {
+    LoggingKafkaListenerAspect(@Value("${charges.delta.retry-attempts}") int maxAttempts,
+                               MessageLogSampler sampler) {
         this.maxAttempts = maxAttempts;
+        this.sampler = sampler;
     }
 
-    @Around("@annotation(org.springframework.kafka.annotation.KafkaListener)")
+    @Around("execution(* uk.gov.companieshouse.charges.delta.consumer.ChargesDeltaMessageHandler.handle(..))")
     public Object manageStructuredLogging(ProceedingJoinPoint joinPoint)
             throws Throwable {
 
         int retryCount = 0;
+        boolean success = false;
+        long start = System.nanoTime();
         try {
             Message<?> message = (Message<?>) joinPoint.getArgs()[0];
             retryCount = Optional.ofNullable((Integer) joinPoint.getArgs()[1]).orElse(1) - 1;
@@ -47,12 +52,19 @@ class LoggingKafkaListenerAspect {
                     .partition((Integer) joinPoint.getArgs()[3])
                     .offset((Long) joinPoint.getArgs()[4]);
 
-            LOGGER.info(LOG_MESSAGE_RECEIVED, DataMapHolder.getLogMap());
+            // Retries are always logged; first attempts are sampled
+            boolean sampled = retryCount > 0 || sampler.sample();
+            DataMapHolder.sampled(sampled);
+            if (sampled) {
+                LOGGER.info(LOG_MESSAGE_RECEIVED, DataMapHolder.getLogMap());
+            }
 
             Object result = joinPoint.proceed();
 
-            LOGGER.info(LOG_MESSAGE_PROCESSED, DataMapHolder.getLogMap());
-
+            if (sampled) {
+                LOGGER.info(LOG_MESSAGE_PROCESSED, DataMapHolder.getLogMap());
+            }
+            success = true;
             return result;
         } catch (RetryableErrorException ex) {
             // maxAttempts includes first attempt which is not a retry
@@ -67,6 +79,7 @@ class LoggingKafkaListenerAspect {
             LOGGER.errorContext(ex.getMessage(), ex, DataMapHolder.getLogMap());
             throw ex;
         } finally {
+            sampler.record(System.nanoTime() - start, success);
             DataMapHolder.clear();
         }
     }
@@ -0,0 +1,95 @@
+package uk.gov.companieshouse.charges.delta.logging;
+
+import static uk.gov.companieshouse.charges.delta.ChargesDeltaConsumerApplication.NAMESPACE;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import uk.gov.companieshouse.logging.Logger;
+import uk.gov.companieshouse.logging.LoggerFactory;
+
+/**
+ * Decides which messages have their success path logged, and summarises the rest.
+ *
+ * <p>With {@code charges.delta.logging.sample-rate} set to N, one in every N messages logs its
+ * success path at INFO; a rate of 1 logs every message. Errors are always logged. While
+ * sampling, a summary of the messages processed, those that failed and latency percentiles is
+ * logged at most once every {@code charges.delta.logging.summary-interval} milliseconds, by the
+ * first message to complete after the interval has elapsed.
+ */
+@Component
+public class MessageLogSampler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(NAMESPACE);
+    private static final String SUMMARY_MESSAGE = "Processed %d deltas in the last %d seconds, %d failed;"
+            + " latency ms p50 %.1f, p95 %.1f, p99 %.1f, max %.1f";
+    private static final double NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final int sampleRate;
+    private final long summaryIntervalNanos;
+    private final AtomicLong messages = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong nextSummary;
+    private final Recorder latencies = new Recorder(2);
+    private long intervalStart;
+
+    MessageLogSampler(@Value("${charges.delta.logging.sample-rate}") int sampleRate,
+                      @Value("${charges.delta.logging.summary-interval}") long summaryIntervalMillis) {
+        this.sampleRate = Math.max(1, sampleRate);
+        this.summaryIntervalNanos = TimeUnit.MILLISECONDS.toNanos(summaryIntervalMillis);
+        this.intervalStart = System.nanoTime();
+        this.nextSummary = new AtomicLong(intervalStart + summaryIntervalNanos);
+    }
+
+    /**
+     * Returns true when the next message should log its success path.
+     */
+    public boolean sample() {
+        return sampleRate == 1 || messages.getAndIncrement() % sampleRate == 0;
+    }
+
+    /**
+     * Records a processed message, logging the summary when the interval has elapsed.
+     */
+    void record(long durationNanos, boolean success) {
+        if (sampleRate == 1) {
+            return;
+        }
+        latencies.recordValue(durationNanos);
+        if (!success) {
+            failures.incrementAndGet();
+        }
+        long now = System.nanoTime();
+        long deadline = nextSummary.get();
+        if (now - deadline >= 0 && nextSummary.compareAndSet(deadline, now + summaryIntervalNanos)) {
+            String summary = takeSummary(now);
+            if (summary != null) {
+                LOGGER.info(summary);
+            }
+        }
+    }
+
+    /**
+     * Returns the summary of the interval ending now and starts a new one, or null when no
+     * messages were processed.
+     */
+    synchronized String takeSummary(long now) {
+        Histogram histogram = latencies.getIntervalHistogram();
+        long elapsedSeconds = TimeUnit.NANOSECONDS.toSeconds(now - intervalStart);
+        intervalStart = now;
+        long failed = failures.getAndSet(0);
+        if (histogram.getTotalCount() == 0) {
+            return null;
+        }
+        return String.format(SUMMARY_MESSAGE, histogram.getTotalCount(), elapsedSeconds, failed,
+                millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(95)),
+                millis(histogram.getValueAtPercentile(99)), millis(histogram.getMaxValue()));
+    }
+
+    private static double millis(long nanos) {
+        return nanos / NANOS_PER_MILLI;
+    }
+}
@@ -0,0 +1,16 @@
+package uk.gov.companieshouse.charges.delta.logging;
+
+import org.springframework.context.annotation.Condition;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+
+/**
+ * Matches when TRACE is enabled for the application namespace as the context starts.
+ */
+public class TraceEnabledCondition implements Condition {
+
+    @Override
+    public boolean matches(ConditionContext context, AnnotatedTypeMetadata metadata) {
+        return TraceLogging.isEnabled();
+    }
+}
@@ -0,0 +1,34 @@
+package uk.gov.companieshouse.charges.delta.logging;
+
+import static uk.gov.companieshouse.charges.delta.ChargesDeltaConsumerApplication.NAMESPACE;
+
+import java.util.function.Supplier;
+import uk.gov.companieshouse.logging.Logger;
+import uk.gov.companieshouse.logging.LoggerFactory;
+
+/**
+ * Trace logging for messages that are expensive to render, such as whole deltas or charges.
+ *
+ * <p>The message is only rendered when TRACE is enabled for the application namespace.
+ */
+public final class TraceLogging {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(NAMESPACE);
+    private static final org.slf4j.Logger LEVEL_LOGGER = org.slf4j.LoggerFactory.getLogger(NAMESPACE);
+
+    private TraceLogging() {
+    }
+
+    public static boolean isEnabled() {
+        return LEVEL_LOGGER.isTraceEnabled();
+    }
+
+    /**
+     * Logs the supplied message at TRACE, rendering it only when TRACE is enabled.
+     */
+    public static void trace(Supplier<String> message) {
+        if (isEnabled()) {
+            LOGGER.trace(message.get(), DataMapHolder.getLogMap());
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package uk.gov.companieshouse.charges.delta.mapper;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.util.Locale;
+import java.util.function.UnaryOperator;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@link TextFormatter} that remembers the results of recent formatting.
+ *
+ * <p>The same lender names and particulars wording appear on very many charges, so most calls
+ * become a single cache lookup. Entity names and sentences are cased without regard to the case
+ * of the input, so they are keyed on the upper-cased text and share an entry across casings.
+ * Particulars are keyed on the text as given, because escaped newlines in them are matched
+ * case-sensitively. The cache holds at most {@code charges.delta.text-format-cache.max-entries}
+ * results, evicting the least valuable first; hit rate, size and evictions are published as
+ * {@code cache.*} metrics tagged {@code cache=charges.delta.text-format}.
+ */
+@Primary
+@Component
+@ConditionalOnProperty(prefix = "charges.delta.text-format-cache", name = "enabled",
+        havingValue = "true", matchIfMissing = true)
+public class CachingTextFormatter extends TextFormatter {
+
+    private static final String CACHE_NAME = "charges.delta.text-format";
+
+    private final Cache<CacheKey, String> cache;
+
+    /**
+     * Constructor.
+     */
+    public CachingTextFormatter(@Value("${charges.delta.text-format-cache.max-entries}") long maxEntries,
+                                MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    @Override
+    String formatAsEntityName(String text) {
+        return format(Format.ENTITY_NAME, text, super::formatAsEntityName);
+    }
+
+    @Override
+    String formatAsSentence(String text) {
+        return format(Format.SENTENCE, text, super::formatAsSentence);
+    }
+
+    @Override
+    String formatAsParticulars(String text) {
+        return format(Format.PARTICULARS, text, super::formatAsParticulars);
+    }
+
+    private String format(Format format, String text, UnaryOperator<String> formatter) {
+        if (StringUtils.isEmpty(text)) {
+            return text;
+        }
+        String key = format.caseInsensitive ? text.toUpperCase(Locale.UK) : text;
+        return cache.get(new CacheKey(format, key), cacheKey -> formatter.apply(cacheKey.text()));
+    }
+
+    private enum Format {
+        ENTITY_NAME(true),
+        SENTENCE(true),
+        PARTICULARS(false);
+
+        private final boolean caseInsensitive;
+
+        Format(boolean caseInsensitive) {
+            this.caseInsensitive = caseInsensitive;
+        }
+    }
+
+    private record CacheKey(Format format, String text) {
+    }
+}
@@ -5,15 +5,9 @@ import static org.apache.commons.lang3.BooleanUtils.toBooleanObject;
 import static org.apache.commons.lang3.StringUtils.isEmpty;
 import static org.apache.commons.lang3.StringUtils.trim;
 
-import java.lang.reflect.InvocationTargetException;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
-import java.util.Arrays;
-import java.util.HashMap;
-import java.util.Map;
 
 import org.apache.commons.lang3.StringUtils;
-import org.apache.commons.lang3.ObjectUtils;
 import org.mapstruct.AfterMapping;
 import org.mapstruct.Context;
 import org.mapstruct.Mapper;
@@ -34,9 +28,6 @@ import uk.gov.companieshouse.api.delta.ShortParticularFlags;
             TransactionsApiMapper.class})
 public interface ChargeApiMapper {
 
-    String YYYY_MM_DD = "yyyyMMdd";
-    String SET_TYPE = "setType";
-    String SET_DESCRIPTION = "setDescription";
     //TODO Better way of ignoring fields to be looked at
     // etag doesn't exist on source. This needs to be populated by data api
 
@@ -70,8 +61,7 @@ public interface ChargeApiMapper {
     @Mapping(target = "coveringInstrumentDate", ignore = true)
     @Mapping(target = "id", ignore = true)
     ChargeApi chargeToChargeApi(Charge sourceCharge,
-                                @Context String companyNumber) throws NoSuchMethodException,
-            InvocationTargetException, IllegalAccessException;
+                                @Context String companyNumber);
 
     /**
      * Map Source Charge to ClassificationApi.
@@ -79,8 +69,7 @@ public interface ChargeApiMapper {
 
     @AfterMapping
     default void mapToClassificationApi(@MappingTarget ChargeApi chargeApi,
-                                        Charge charge) throws NoSuchMethodException,
-            InvocationTargetException, IllegalAccessException {
+                                        Charge charge) {
         ClassificationApi classificationApi = new ClassificationApi();
 
         stringToClassificationApiEnum(charge.getType(), classificationApi,
@@ -95,8 +84,7 @@ public interface ChargeApiMapper {
      */
     @AfterMapping
     default void mapToParticularsApi(@MappingTarget ChargeApi chargeApi,
-                                     Charge charge) throws InvocationTargetException,
-            NoSuchMethodException, IllegalAccessException {
+                                     Charge charge) {
         ParticularsApi particularsApi = chargeApi.getParticulars() == null
                 ? new ParticularsApi() : chargeApi.getParticulars();
         ShortParticularFlags shortParticularFlags = charge.getShortParticularFlags() == null
@@ -118,23 +106,10 @@ public interface ChargeApiMapper {
     }
 
     /**
-     * Helper method to determine if any first level field value in an object is not null.
+     * Helper method to determine if any field value in a ParticularsApi is not null.
      */
-    private boolean isAnyFieldValueNotNull(Object targetObject) {
-        if (targetObject == null) {
-            return false;
-        }
-
-        return ObjectUtils.anyNotNull(Arrays.stream(targetObject.getClass().getDeclaredFields())
-                .filter(field -> !field.isSynthetic())
-                .map(field -> {
-                    try {
-                        field.setAccessible(true);
-                        return field.get(targetObject);
-                    } catch (IllegalAccessException ex) {
-                        throw new RuntimeException(ex);
-                    }
-                }).toArray(Object[]::new));
+    private boolean isAnyFieldValueNotNull(ParticularsApi particularsApi) {
+        return ParticularsApiFields.isAnyNotNull(particularsApi);
     }
 
     /**
@@ -142,8 +117,7 @@ public interface ChargeApiMapper {
      */
     @AfterMapping
     default void mapToSecuredDetailsApiApi(@MappingTarget ChargeApi chargeApi,
-                                           Charge charge) throws InvocationTargetException,
-            NoSuchMethodException, IllegalAccessException {
+                                           Charge charge) {
         SecuredDetailsApi securedDetailsApi = chargeApi.getSecuredDetails() == null
                 ? new SecuredDetailsApi() : chargeApi.getSecuredDetails();
         if (!StringUtils.isEmpty(charge.getObligationsSecured())
@@ -168,7 +142,7 @@ public interface ChargeApiMapper {
     default void mapStatuses(@MappingTarget ChargeApi chargeApi,
                              Charge charge) {
 
-        chargeApi.setStatus(populateStatusEnumMap().get(Integer.parseInt(charge.getStatus())));
+        chargeApi.setStatus(ChargeCodes.status(charge.getStatus()));
     }
 
     /**
@@ -213,9 +187,11 @@ public interface ChargeApiMapper {
      * Maps property in Charge to enum in ParticularApi model.
      */
     private void stringToParticularsApiEnum(String property, ParticularsApi particularsApi,
-                                            ParticularsApi.TypeEnum theEnum)
-            throws InvocationTargetException, NoSuchMethodException, IllegalAccessException {
-        stringToEnum(property, particularsApi, theEnum);
+                                            ParticularsApi.TypeEnum theEnum) {
+        if (!StringUtils.isEmpty(property)) {
+            particularsApi.setType(theEnum);
+            particularsApi.setDescription(property);
+        }
     }
 
     /**
@@ -223,9 +199,11 @@ public interface ChargeApiMapper {
      */
     private void stringToClassificationApiEnum(String property,
                                                ClassificationApi classificationApi,
-                                               ClassificationApi.TypeEnum theEnum)
-            throws NoSuchMethodException, InvocationTargetException, IllegalAccessException {
-        stringToEnum(property, classificationApi, theEnum);
+                                               ClassificationApi.TypeEnum theEnum) {
+        if (!StringUtils.isEmpty(property)) {
+            classificationApi.setType(theEnum);
+            classificationApi.setDescription(property);
+        }
     }
 
     /**
@@ -233,10 +211,10 @@ public interface ChargeApiMapper {
      */
     private void stringToSecuredDetailsApiEnum(String property,
                                                SecuredDetailsApi securedDetailsApi,
-                                               SecuredDetailsApi.TypeEnum theEnum)
-            throws InvocationTargetException, NoSuchMethodException, IllegalAccessException {
+                                               SecuredDetailsApi.TypeEnum theEnum) {
         if (!StringUtils.isEmpty(property)) {
-            stringToEnum(property, securedDetailsApi, theEnum);
+            securedDetailsApi.setType(theEnum);
+            securedDetailsApi.setDescription(property);
         }
     }
 
@@ -264,8 +242,7 @@ public interface ChargeApiMapper {
      */
     private LocalDate parseDate(String sourceDate) {
         if (!isEmpty(trim(sourceDate))) {
-            return LocalDate.parse(sourceDate,
-                    DateTimeFormatter.ofPattern(ChargeApiMapper.YYYY_MM_DD));
+            return DeltaDates.parseDate(sourceDate);
         }
         return null;
     }
@@ -284,52 +261,7 @@ public interface ChargeApiMapper {
     @AfterMapping
     default void mapAssetsCeasedReleasedEnum(@MappingTarget ChargeApi chargeApi,
                                              Charge charge) {
-        chargeApi.setAssetsCeasedReleased(populateAssetsCeasedReleasedEnumMap()
-                .get(charge.getAssetsCeasedReleased() != null
-                        ? Integer.parseInt(charge.getAssetsCeasedReleased()) : null));
-    }
-
-
-    /**
-     * create map with enum values.
-     */
-    private Map<Integer, ChargeApi.AssetsCeasedReleasedEnum> populateAssetsCeasedReleasedEnumMap() {
-        Map<Integer, ChargeApi.AssetsCeasedReleasedEnum> map = new HashMap<>();
-        map.put(3, ChargeApi.AssetsCeasedReleasedEnum.PROPERTY_CEASED_TO_BELONG);
-        map.put(4, ChargeApi.AssetsCeasedReleasedEnum.PART_PROPERTY_RELEASE_AND_CEASED_TO_BELONG);
-        map.put(5, ChargeApi.AssetsCeasedReleasedEnum.PART_PROPERTY_RELEASED);
-        map.put(6, ChargeApi.AssetsCeasedReleasedEnum.PART_PROPERTY_CEASED_TO_BELONG);
-        map.put(8, ChargeApi.AssetsCeasedReleasedEnum.WHOLE_PROPERTY_RELEASED);
-        map.put(9, ChargeApi.AssetsCeasedReleasedEnum.MULTIPLE_FILINGS);
-        map.put(10, ChargeApi.AssetsCeasedReleasedEnum
-                .WHOLE_PROPERTY_RELEASED_AND_CEASED_TO_BELONG);
-        return map;
-    }
-
-    /**
-     * create map with enum values.
-     */
-    private Map<Integer, ChargeApi.StatusEnum> populateStatusEnumMap() {
-        Map<Integer, ChargeApi.StatusEnum> map = new HashMap<>();
-        map.put(0, ChargeApi.StatusEnum.OUTSTANDING);
-        map.put(1, ChargeApi.StatusEnum.FULLY_SATISFIED);
-        map.put(2, ChargeApi.StatusEnum.PART_SATISFIED);
-        map.put(7, ChargeApi.StatusEnum.SATISFIED);
-
-        return map;
-    }
-
-    /**
-     /**
-     * Generic method that Maps property from an object to description in the target object and
-     * sets the enum in the target object model.
-     */
-    private <T> void stringToEnum(String property, Object obj,
-                                  Enum<?> theEnum) throws NoSuchMethodException,
-            InvocationTargetException, IllegalAccessException {
-        if (!StringUtils.isEmpty(property)) {
-            obj.getClass().getMethod(SET_TYPE, theEnum.getClass()).invoke(obj, theEnum);
-            obj.getClass().getMethod(SET_DESCRIPTION, String.class).invoke(obj, property);
-        }
+        chargeApi.setAssetsCeasedReleased(
+                ChargeCodes.assetsCeasedReleased(charge.getAssetsCeasedReleased()));
     }
 }
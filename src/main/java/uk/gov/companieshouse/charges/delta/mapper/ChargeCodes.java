@@ -0,0 +1,56 @@
+package uk.gov.companieshouse.charges.delta.mapper;
+
+import uk.gov.companieshouse.api.charges.ChargeApi.AssetsCeasedReleasedEnum;
+import uk.gov.companieshouse.api.charges.ChargeApi.StatusEnum;
+
+/**
+ * Lookup tables for the numeric codes in charges deltas, indexed by code.
+ */
+final class ChargeCodes {
+
+    private static final StatusEnum[] STATUSES = new StatusEnum[8];
+    private static final AssetsCeasedReleasedEnum[] ASSETS_CEASED_RELEASED =
+            new AssetsCeasedReleasedEnum[11];
+
+    static {
+        STATUSES[0] = StatusEnum.OUTSTANDING;
+        STATUSES[1] = StatusEnum.FULLY_SATISFIED;
+        STATUSES[2] = StatusEnum.PART_SATISFIED;
+        STATUSES[7] = StatusEnum.SATISFIED;
+
+        ASSETS_CEASED_RELEASED[3] = AssetsCeasedReleasedEnum.PROPERTY_CEASED_TO_BELONG;
+        ASSETS_CEASED_RELEASED[4] =
+                AssetsCeasedReleasedEnum.PART_PROPERTY_RELEASE_AND_CEASED_TO_BELONG;
+        ASSETS_CEASED_RELEASED[5] = AssetsCeasedReleasedEnum.PART_PROPERTY_RELEASED;
+        ASSETS_CEASED_RELEASED[6] = AssetsCeasedReleasedEnum.PART_PROPERTY_CEASED_TO_BELONG;
+        ASSETS_CEASED_RELEASED[8] = AssetsCeasedReleasedEnum.WHOLE_PROPERTY_RELEASED;
+        ASSETS_CEASED_RELEASED[9] = AssetsCeasedReleasedEnum.MULTIPLE_FILINGS;
+        ASSETS_CEASED_RELEASED[10] =
+                AssetsCeasedReleasedEnum.WHOLE_PROPERTY_RELEASED_AND_CEASED_TO_BELONG;
+    }
+
+    private ChargeCodes() {
+    }
+
+    /**
+     * The status for a status code, or null for an unknown code.
+     *
+     * @throws NumberFormatException if the code is not a number
+     */
+    static StatusEnum status(String code) {
+        return lookup(STATUSES, Integer.parseInt(code));
+    }
+
+    /**
+     * The assets ceased released value for a code, or null if the code is null or unknown.
+     *
+     * @throws NumberFormatException if the code is not a number
+     */
+    static AssetsCeasedReleasedEnum assetsCeasedReleased(String code) {
+        return code != null ? lookup(ASSETS_CEASED_RELEASED, Integer.parseInt(code)) : null;
+    }
+
+    private static <T> T lookup(T[] table, int code) {
+        return code >= 0 && code < table.length ? table[code] : null;
+    }
+}
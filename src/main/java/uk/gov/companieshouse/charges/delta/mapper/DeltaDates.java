@@ -0,0 +1,94 @@
+package uk.gov.companieshouse.charges.delta.mapper;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.Month;
+import java.time.OffsetDateTime;
+import java.time.Year;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Parses the fixed width dates and timestamps used in charges deltas.
+ *
+ * <p>Well formed values are read digit by digit. Anything else, including dates that only
+ * resolve by adjusting the day of the month, is handed to the equivalent shared
+ * {@link DateTimeFormatter} so that the result or the exception is unchanged.
+ */
+public final class DeltaDates {
+
+    public static final String DATE_PATTERN = "yyyyMMdd";
+    public static final String DATE_TIME_PATTERN = "yyyyMMddHHmmssSSSSSS";
+
+    private static final DateTimeFormatter DATE_FORMATTER =
+            DateTimeFormatter.ofPattern(DATE_PATTERN);
+    private static final DateTimeFormatter DATE_TIME_FORMATTER =
+            DateTimeFormatter.ofPattern(DATE_TIME_PATTERN).withZone(ZoneOffset.UTC);
+
+    private DeltaDates() {
+    }
+
+    /**
+     * Parses a {@code yyyyMMdd} date.
+     */
+    public static LocalDate parseDate(String date) {
+        if (date.length() == DATE_PATTERN.length() && isDigits(date)) {
+            LocalDate parsed = toDate(date);
+            if (parsed != null) {
+                return parsed;
+            }
+        }
+        return LocalDate.parse(date, DATE_FORMATTER);
+    }
+
+    /**
+     * Parses a {@code yyyyMMddHHmmssSSSSSS} timestamp in UTC.
+     */
+    public static OffsetDateTime parseDateTime(String dateTime) {
+        if (dateTime.length() == DATE_TIME_PATTERN.length() && isDigits(dateTime)) {
+            LocalDate date = toDate(dateTime);
+            int hour = number(dateTime, 8, 10);
+            int minute = number(dateTime, 10, 12);
+            int second = number(dateTime, 12, 14);
+            if (date != null && hour < 24 && minute < 60 && second < 60) {
+                return OffsetDateTime.of(date,
+                        LocalTime.of(hour, minute, second, number(dateTime, 14, 20) * 1000),
+                        ZoneOffset.UTC);
+            }
+        }
+        return ZonedDateTime.parse(dateTime, DATE_TIME_FORMATTER).toOffsetDateTime();
+    }
+
+    /**
+     * The date in the first eight digits, or null if it is not a valid calendar date.
+     */
+    private static LocalDate toDate(String digits) {
+        int year = number(digits, 0, 4);
+        int month = number(digits, 4, 6);
+        int day = number(digits, 6, 8);
+        if (year < 1 || month < 1 || month > 12 || day < 1
+                || day > Month.of(month).length(Year.isLeap(year))) {
+            return null;
+        }
+        return LocalDate.of(year, month, day);
+    }
+
+    private static boolean isDigits(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char ch = text.charAt(i);
+            if (ch < '0' || ch > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int number(String digits, int start, int end) {
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            value = value * 10 + digits.charAt(i) - '0';
+        }
+        return value;
+    }
+}
@@ -1,6 +1,5 @@
 package uk.gov.companieshouse.charges.delta.mapper;
 
-import java.lang.reflect.InvocationTargetException;
 import java.util.Collection;
 import java.util.Optional;
 
@@ -52,8 +51,7 @@ public class DescriptiveChargeApiMapper implements ChargeApiMapper {
     }
 
     @Override
-    public ChargeApi chargeToChargeApi(Charge sourceCharge, String companyNumber)
-            throws NoSuchMethodException, InvocationTargetException, IllegalAccessException {
+    public ChargeApi chargeToChargeApi(Charge sourceCharge, String companyNumber) {
         ChargeApi result = chargeApiMapper.chargeToChargeApi(sourceCharge, companyNumber);
         Optional.ofNullable(result.getClassification())
                 .ifPresent(classification -> classification.setDescription(
@@ -1,24 +1,25 @@
 package uk.gov.companieshouse.charges.delta.mapper;
 
-import static uk.gov.companieshouse.charges.delta.ChargesDeltaConsumerApplication.NAMESPACE;
-
 import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.annotation.AfterReturning;
 import org.aspectj.lang.annotation.Aspect;
+import org.springframework.context.annotation.Conditional;
 import org.springframework.stereotype.Component;
-import uk.gov.companieshouse.charges.delta.logging.DataMapHolder;
-import uk.gov.companieshouse.logging.Logger;
-import uk.gov.companieshouse.logging.LoggerFactory;
+import uk.gov.companieshouse.charges.delta.logging.TraceEnabledCondition;
+import uk.gov.companieshouse.charges.delta.logging.TraceLogging;
 
+/**
+ * Traces each {@link TextFormatter} mapping. Only registered when TRACE is enabled as the
+ * application starts, so that the text formatter is not otherwise proxied.
+ */
 @Aspect
 @Component
+@Conditional(TraceEnabledCondition.class)
 public class DescriptiveChargeApiMapperAspect {
 
-    private static final Logger LOGGER = LoggerFactory.getLogger(NAMESPACE);
-
     @AfterReturning(value = "execution(* uk.gov.companieshouse.charges.delta.mapper"
             + ".TextFormatter.*(..))", returning = "mappedValue")
     void logMapping(JoinPoint joinPoint, Object mappedValue) {
-        LOGGER.trace(String.format("Mapped [%s] to [%s]", joinPoint.getArgs()[0], mappedValue), DataMapHolder.getLogMap());
+        TraceLogging.trace(() -> String.format("Mapped [%s] to [%s]", joinPoint.getArgs()[0], mappedValue));
     }
 }
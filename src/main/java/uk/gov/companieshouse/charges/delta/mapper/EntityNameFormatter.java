@@ -0,0 +1,315 @@
+package uk.gov.companieshouse.charges.delta.mapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Formats entity names with the same result as the regular expression passes in
+ * {@link TextFormatter#recaseAsEntityName(String)}, using two scans over a character buffer.
+ *
+ * <p>The first scan recases each word, capitalises the first, last, bracketed and post-colon
+ * words, uppercases single-letter abbreviations and collapses whitespace. The second uppercases
+ * mixed alphanumeric words and entity suffixes. Each regular expression is reproduced exactly,
+ * including the unescaped dots in entities such as {@code L.T.D}, which match any character.
+ *
+ * <p>Only text made up of ASCII and the Latin-1 characters whose case mapping is one character
+ * to one character is handled; {@link #format(String)} returns null for anything else, and under
+ * locales with special lower-casing rules, so that the caller can fall back to the regular
+ * expressions.
+ */
+final class EntityNameFormatter {
+
+    private static final Set<String> LOWER_CASING_LANGUAGES = Set.of("tr", "az", "lt");
+
+    private static final int MAX_STOP_WORD_LENGTH = TextFormatter.STOP_WORDS.stream()
+            .mapToInt(String::length).max().orElse(0);
+
+    /**
+     * Entities by first letter, each list in the order the entity alternation tries them.
+     */
+    private static final char[][][] ENTITIES_BY_FIRST_LETTER = entitiesByFirstLetter();
+
+    /**
+     * Before JDK 19 {@code \b} treats any letter or digit as a word character; from JDK 19 only
+     * ASCII word characters, matching {@code \w}.
+     */
+    private static final boolean UNICODE_WORD_BOUNDARY =
+            Pattern.compile("\\b").matcher("\u00c9").find();
+
+    private EntityNameFormatter() {
+    }
+
+    /**
+     * Formats non-empty text as an entity name, or returns null if the text is not supported.
+     */
+    static String format(String text) {
+        if (!isSupported(text)) {
+            return null;
+        }
+        int length = text.length();
+        char[] upper = new char[length];
+        for (int i = 0; i < length; i++) {
+            upper[i] = Character.toUpperCase(text.charAt(i));
+        }
+
+        int firstOpening = firstOpeningParenthesisWord(upper);
+        int firstClosing = firstClosingParenthesisWord(upper);
+        int firstColon = firstColonWord(upper);
+        int last = lastWord(upper);
+
+        char[] result = new char[length];
+        int size = 0;
+        int i = 0;
+        while (i < length) {
+            char ch = upper[i];
+            if (Character.isLetter(ch)) {
+                int end = wordEnd(upper, i);
+                boolean capitalise = i == 0 || i == firstOpening || i == firstClosing
+                        || i == firstColon || i == last || !isStopWord(upper, i, end);
+                for (int j = i; j < end; j++) {
+                    char lower = Character.toLowerCase(upper[j]);
+                    result[size++] = capitalise && j == i ? Character.toTitleCase(lower) : lower;
+                }
+                // A single letter abbreviation: a letter starting a word, followed by a full stop
+                if (end < length && upper[end] == '.' && Character.isLetter(upper[end - 1])
+                        && isBoundary(upper, length, end - 1)) {
+                    result[size - 1] = Character.toUpperCase(result[size - 1]);
+                }
+                i = end;
+            } else if (isWhitespace(ch)) {
+                while (i < length && isWhitespace(upper[i])) {
+                    i++;
+                }
+                result[size++] = ' ';
+            } else {
+                result[size++] = ch;
+                i++;
+            }
+        }
+
+        upperCaseMixedAlphanumerics(result, size);
+        upperCaseEntities(result, size);
+
+        int start = 0;
+        while (start < size && result[start] <= ' ') {
+            start++;
+        }
+        while (size > start && result[size - 1] <= ' ') {
+            size--;
+        }
+        return new String(result, start, size - start);
+    }
+
+    private static boolean isSupported(String text) {
+        if (LOWER_CASING_LANGUAGES.contains(Locale.getDefault().getLanguage())) {
+            return false;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            char ch = text.charAt(i);
+            // Latin-1 other than the C1 controls and the characters whose case mapping changes
+            // length or leaves Latin-1: micro sign, sharp s and y diaeresis
+            if (ch >= 0x80 && (ch < 0xa0 || ch > 0xfe || ch == 0xb5 || ch == 0xdf)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int wordEnd(char[] text, int start) {
+        int end = start + 1;
+        while (end < text.length && (Character.isLetter(text[end]) || text[end] == '\'')) {
+            end++;
+        }
+        return end;
+    }
+
+    private static boolean isStopWord(char[] text, int start, int end) {
+        return end - start <= MAX_STOP_WORD_LENGTH
+                && TextFormatter.STOP_WORDS.contains(new String(text, start, end - start));
+    }
+
+    /**
+     * Start of the first word directly after an opening parenthesis, or -1.
+     */
+    private static int firstOpeningParenthesisWord(char[] text) {
+        for (int i = 0; i < text.length - 1; i++) {
+            if (text[i] == '(' && Character.isLetter(text[i + 1])) {
+                return i + 1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Start of the first word directly followed by a closing parenthesis, or -1.
+     */
+    private static int firstClosingParenthesisWord(char[] text) {
+        int i = 0;
+        while (i < text.length) {
+            if (Character.isLetter(text[i])) {
+                int end = wordEnd(text, i);
+                if (end < text.length && text[end] == ')') {
+                    return i;
+                }
+                i = end;
+            } else {
+                i++;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Start of the first word following a colon or semicolon and whitespace, or -1.
+     */
+    private static int firstColonWord(char[] text) {
+        for (int i = 0; i < text.length - 1; i++) {
+            if ((text[i] == ':' || text[i] == ';') && isWhitespace(text[i + 1])) {
+                int j = i + 1;
+                while (j < text.length && isWhitespace(text[j])) {
+                    j++;
+                }
+                if (j < text.length && Character.isLetter(text[j])) {
+                    return j;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Start of the word ending where {@code $} matches, at the end of the text or before a final
+     * line terminator, or -1.
+     */
+    private static int lastWord(char[] text) {
+        int length = text.length;
+        int end;
+        if (text[length - 1] == '\n' && length > 1 && text[length - 2] == '\r') {
+            end = length - 2;
+        } else if (text[length - 1] == '\n' || text[length - 1] == '\r') {
+            end = length - 1;
+        } else {
+            end = length;
+        }
+        int start = end;
+        while (start > 0 && (Character.isLetter(text[start - 1]) || text[start - 1] == '\'')) {
+            start--;
+        }
+        while (start < end && !Character.isLetter(text[start])) {
+            start++;
+        }
+        return start < end ? start : -1;
+    }
+
+    /**
+     * Uppercases runs of word characters that contain a digit, such as {@code 1st} or {@code a2b}.
+     */
+    static void upperCaseMixedAlphanumerics(char[] text, int size) {
+        int i = 0;
+        while (i < size) {
+            if (!isAsciiWord(text[i])) {
+                i++;
+                continue;
+            }
+            int start = i;
+            boolean digit = false;
+            while (i < size && isAsciiWord(text[i])) {
+                digit |= text[i] >= '0' && text[i] <= '9';
+                i++;
+            }
+            if (digit && i - start > 1) {
+                for (int j = start; j < i; j++) {
+                    if (text[j] >= 'a' && text[j] <= 'z') {
+                        text[j] -= 'a' - 'A';
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Uppercases entities such as {@code Ltd} and {@code Plc} that appear as whole words.
+     */
+    static void upperCaseEntities(char[] text, int size) {
+        int i = 0;
+        while (i < size) {
+            int end = matchEntity(text, size, i);
+            if (end < 0) {
+                i++;
+                continue;
+            }
+            String token = new String(text, i, end - i).toUpperCase(Locale.UK);
+            if (TextFormatter.ENTITIES.contains(token)) {
+                token.getChars(0, token.length(), text, i);
+            }
+            i = end;
+        }
+    }
+
+    private static int matchEntity(char[] text, int size, int start) {
+        char first = text[start];
+        if (first > 0x7f || !Character.isLetter(first) || !isBoundary(text, size, start)) {
+            return -1;
+        }
+        for (char[] entity : ENTITIES_BY_FIRST_LETTER[Character.toUpperCase(first) - 'A']) {
+            int end = start + entity.length;
+            if (end <= size && matches(entity, text, start) && isBoundary(text, size, end)) {
+                return end;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean matches(char[] entity, char[] text, int start) {
+        for (int k = 0; k < entity.length; k++) {
+            char ch = text[start + k];
+            if (entity[k] == '.') {
+                if (isLineTerminator(ch)) {
+                    return false;
+                }
+            } else if (entity[k] != ch && (ch > 0x7f || entity[k] != Character.toUpperCase(ch))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isBoundary(char[] text, int size, int index) {
+        boolean left = index > 0 && isWord(text[index - 1]);
+        boolean right = index < size && isWord(text[index]);
+        return left != right;
+    }
+
+    static boolean isWord(char ch) {
+        return UNICODE_WORD_BOUNDARY ? ch == '_' || Character.isLetterOrDigit(ch) : isAsciiWord(ch);
+    }
+
+    static boolean isAsciiWord(char ch) {
+        return ch >= 'a' && ch <= 'z' || ch >= 'A' && ch <= 'Z' || ch >= '0' && ch <= '9' || ch == '_';
+    }
+
+    static boolean isWhitespace(char ch) {
+        return ch == ' ' || ch == '\t' || ch == '\n' || ch == '\u000b' || ch == '\f' || ch == '\r';
+    }
+
+    private static boolean isLineTerminator(char ch) {
+        return ch == '\n' || ch == '\r' || ch == '\u0085' || ch == '\u2028' || ch == '\u2029';
+    }
+
+    private static char[][][] entitiesByFirstLetter() {
+        List<List<char[]>> byLetter = new ArrayList<>();
+        for (int letter = 'A'; letter <= 'Z'; letter++) {
+            byLetter.add(new ArrayList<>());
+        }
+        // Same iteration order as String.join over the set when building MATCHES_ENTITY
+        for (String entity : TextFormatter.ENTITIES) {
+            byLetter.get(entity.charAt(0) - 'A').add(entity.toCharArray());
+        }
+        return byLetter.stream()
+                .map(entities -> entities.toArray(char[][]::new))
+                .toArray(char[][][]::new);
+    }
+}
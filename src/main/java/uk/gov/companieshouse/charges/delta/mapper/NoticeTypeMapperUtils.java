@@ -1,84 +1,19 @@
 package uk.gov.companieshouse.charges.delta.mapper;
 
-import java.io.BufferedReader;
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.nio.charset.StandardCharsets;
-import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
-import java.util.StringTokenizer;
-import java.util.function.Consumer;
-import java.util.stream.Collectors;
 
 public class NoticeTypeMapperUtils {
 
-    public static final String NOTICE_TYPES_DATA_FILE = "noticeTypes.txt";
-    public static final String NOTICE_TYPE = "notice_type:";
-    public static final String TRANS_DESC = "trans_desc:";
     public static final String NO_PATTERN = "no_pattern";
-    public static final String FILING_TYPE = "filing_type:";
-    public static final String DELIMITER = ",";
-    public static Map<String, NoticeTypeTransDesc> map = new HashMap<>();
-
-    static {
-        populateData();
-    }
 
     /**
-     * Load all data for notice types.
-     * create map with FilingTypes And Patterns For Various NoticeTypes values.
+     * FilingTypes and patterns for the various NoticeTypes values. Compiled from
+     * {@code src/main/notice-types/noticeTypes.txt} at build time by {@code NoticeTypesGenerator},
+     * which fails the build on a malformed line or an invalid pattern. The map and its values are
+     * immutable; it is only used for lookups, so its iteration order is unspecified.
      */
-    private static void populateData() {
-        List<String> list = getDataFile(NOTICE_TYPES_DATA_FILE);
+    public static final Map<String, NoticeTypeTransDesc> map = NoticeTypes.MAP;
 
-        Consumer<String> setupDataMap = setupDataMap();
-        list.stream().forEach(setupDataMap);
+    private NoticeTypeMapperUtils() {
     }
-
-    private static Consumer<String> setupDataMap() {
-        Consumer<String> setupDataMap = line -> {
-            String key = null;
-            String filingType = null;
-            String transDesc = null;
-            NoticeTypeTransDesc noticeTypeTransDesc = new NoticeTypeTransDesc(key);
-            StringTokenizer st = new StringTokenizer(line, DELIMITER);
-            while (st.hasMoreTokens()) {
-                String noticeType = st.nextToken().trim();
-
-                if (noticeType.contains(NOTICE_TYPE)) {
-                    key = noticeType.split(NOTICE_TYPE)[1].trim();
-                }
-                transDesc = st.nextToken().trim();
-                if (transDesc.contains(TRANS_DESC)) {
-                    transDesc = transDesc.split(TRANS_DESC)[1].trim();
-                    filingType = st.nextToken().trim();
-                } else {
-                    filingType = transDesc;
-                    transDesc = NO_PATTERN;
-                }
-                if (filingType.contains(FILING_TYPE)) {
-                    filingType = filingType.split(FILING_TYPE)[1].trim();
-
-                }
-
-                noticeTypeTransDesc.setNoticeType(key);
-                noticeTypeTransDesc.addTransDescPattern(transDesc, filingType);
-                map.put(key, noticeTypeTransDesc);
-            }
-        };
-        return setupDataMap;
-    }
-
-    private static List<String> getDataFile(String fileName) {
-
-        InputStream inputStream = Thread.currentThread().getContextClassLoader()
-                .getResourceAsStream(fileName);
-        List<String> list = new BufferedReader(
-                new InputStreamReader(inputStream, StandardCharsets.UTF_8))
-                .lines()
-                .collect(Collectors.toList());
-        return list;
-    }
-
 }
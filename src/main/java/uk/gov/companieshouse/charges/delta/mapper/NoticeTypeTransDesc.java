@@ -3,94 +3,74 @@ package uk.gov.companieshouse.charges.delta.mapper;
 import static org.apache.commons.lang3.StringUtils.trim;
 import static uk.gov.companieshouse.charges.delta.mapper.NoticeTypeMapperUtils.NO_PATTERN;
 
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.stream.Collector;
-import java.util.stream.Collectors;
+import java.util.regex.Pattern;
 
 import org.apache.commons.lang3.StringUtils;
 
-public class NoticeTypeTransDesc {
+/**
+ * The filing types of a notice type, keyed on the trans_desc pattern that selects each one.
+ * Instances are immutable.
+ */
+public final class NoticeTypeTransDesc {
 
     public static final String DEFAULT = "";
-    private String noticeType;
+    private final String noticeType;
 
-    private Map<String, String> filingTypeAndTransDescPattern;
+    /**
+     * Filing types keyed on trans_desc pattern, in the order they appear in the notice types file.
+     */
+    private final Map<String, String> filingTypeAndTransDescPattern;
+
+    /**
+     * The trans_desc patterns above compiled once, excluding {@link NoticeTypeMapperUtils#NO_PATTERN}.
+     */
+    private final List<TransDescPattern> transDescPatterns;
 
-    public NoticeTypeTransDesc(String noticeType) {
+    /**
+     * Constructor. The patterns are tried in the iteration order of the given map.
+     */
+    public NoticeTypeTransDesc(String noticeType, Map<String, String> filingTypeAndTransDescPattern) {
         this.noticeType = noticeType;
+        this.filingTypeAndTransDescPattern =
+                Collections.unmodifiableMap(new LinkedHashMap<>(filingTypeAndTransDescPattern));
+        this.transDescPatterns = this.filingTypeAndTransDescPattern.entrySet().stream()
+                .filter(entry -> !entry.getKey().equalsIgnoreCase(NO_PATTERN))
+                .map(entry -> new TransDescPattern(Pattern.compile(entry.getKey()), entry.getValue()))
+                .toList();
     }
 
     public String getNoticeType() {
         return noticeType;
     }
 
-    public void setNoticeType(String noticeType) {
-        this.noticeType = noticeType;
-    }
-
     public Map<String, String> getFilingTypeAndTransDescPattern() {
         return filingTypeAndTransDescPattern;
     }
 
-    public void setFilingTypeAndTransDescPattern(Map<String, String>
-                                                         filingTypeAndTransDescPattern) {
-        this.filingTypeAndTransDescPattern = filingTypeAndTransDescPattern;
-    }
-
-    /**
-     * adds transDesc pattern and filing type as key-value pair into a list.
-     */
-    public NoticeTypeTransDesc addTransDescPattern(String transDescPattern, String filingType) {
-        if (this.filingTypeAndTransDescPattern == null) {
-            this.filingTypeAndTransDescPattern = new HashMap<>();
-        }
-        this.filingTypeAndTransDescPattern.put(transDescPattern, filingType);
-        return this;
-    }
-
     /**
-     * gets filing type based if transDesc matches transDesc pattern.
+     * gets filing type of the first transDesc pattern, in file order, that matches transDesc.
+     * Falls back to the filing type without a pattern when none match.
      */
     public String getFilingType(String transDesc) {
-        String filingType = null;
-
-        if (filingTypeAndTransDescPattern.size() == 1
-                &&
-                filingTypeAndTransDescPattern.containsKey(NO_PATTERN)) {
-            return filingTypeAndTransDescPattern.get(NO_PATTERN);
-        }
         if (filingTypeAndTransDescPattern.size() > 1) {
-            filingType = this.filingTypeAndTransDescPattern.entrySet().stream()
-                    .filter(x -> !StringUtils.isEmpty(trim(transDesc))
-                            && !x.getKey().equalsIgnoreCase(NO_PATTERN)
-                            && trim(transDesc).matches(x.getKey()))
-                    .map(x -> x.getValue())
-                    .collect(toSingleton());
-
-            if (filingType == null
-                    && filingTypeAndTransDescPattern.containsKey(NO_PATTERN)) {
-                return filingTypeAndTransDescPattern.get(NO_PATTERN);
-            }
-        }
-        filingType = StringUtils.isEmpty(filingType) ? DEFAULT : filingType;
-        return filingType;
-    }
-
-    /**
-     * gets a single value from the list.
-     */
-    public static <T> Collector<T, ?, T> toSingleton() {
-        return Collectors.collectingAndThen(
-                Collectors.toList(),
-                list -> {
-                    if (list.size() > 0) {
-                        return list.get(0);
-                    } else {
-                        return null;
+            String trimmedTransDesc = trim(transDesc);
+            if (!StringUtils.isEmpty(trimmedTransDesc)) {
+                for (TransDescPattern transDescPattern : transDescPatterns) {
+                    if (transDescPattern.pattern().matcher(trimmedTransDesc).matches()) {
+                        return StringUtils.isEmpty(transDescPattern.filingType())
+                                ? DEFAULT : transDescPattern.filingType();
                     }
                 }
-        );
+            }
+        }
+        if (filingTypeAndTransDescPattern.containsKey(NO_PATTERN)) {
+            return filingTypeAndTransDescPattern.get(NO_PATTERN);
+        }
+        return DEFAULT;
     }
 
     @Override
@@ -100,4 +80,7 @@ public class NoticeTypeTransDesc {
                 + ", filingTypeAndTransDescPattern=" + filingTypeAndTransDescPattern
                 + '}';
     }
+
+    private record TransDescPattern(Pattern pattern, String filingType) {
+    }
 }
@@ -0,0 +1,41 @@
+package uk.gov.companieshouse.charges.delta.mapper;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import uk.gov.companieshouse.api.charges.ParticularsApi;
+
+/**
+ * Getters for every field of {@link ParticularsApi}, keyed on field name. The test for this class
+ * compares the keys with the fields the SDK declares, so a new field fails the build rather than
+ * being ignored.
+ */
+final class ParticularsApiFields {
+
+    static final Map<String, Function<ParticularsApi, Object>> GETTERS = Map.of(
+            "type", ParticularsApi::getType,
+            "description", ParticularsApi::getDescription,
+            "containsFixedCharge", ParticularsApi::getContainsFixedCharge,
+            "containsFloatingCharge", ParticularsApi::getContainsFloatingCharge,
+            "floatingChargeCoversAll", ParticularsApi::getFloatingChargeCoversAll,
+            "containsNegativePledge", ParticularsApi::getContainsNegativePledge,
+            "chargorActingAsBareTrustee", ParticularsApi::getChargorActingAsBareTrustee);
+
+    private static final List<Function<ParticularsApi, Object>> GETTER_LIST =
+            List.copyOf(GETTERS.values());
+
+    private ParticularsApiFields() {
+    }
+
+    /**
+     * Returns true when any field of the particulars is set.
+     */
+    static boolean isAnyNotNull(ParticularsApi particularsApi) {
+        for (Function<ParticularsApi, Object> getter : GETTER_LIST) {
+            if (getter.apply(particularsApi) != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,408 @@
+package uk.gov.companieshouse.charges.delta.mapper;
+
+/**
+ * Formats sentences and particulars with the same result as the regular expression passes in
+ * {@link TextFormatter#recaseAsSentence(String)} and
+ * {@link TextFormatter#recaseAsParticulars(String)}.
+ *
+ * <p>The text is copied once into a per-thread buffer and formatted in place. Escaped newlines
+ * in particulars are joined as the text is copied, each token is recased as it is read, and the
+ * final scans collapse whitespace and uppercase abbreviations, mixed alphanumerics and entities
+ * in the same way as {@link EntityNameFormatter}. Apart from a larger buffer when one is needed,
+ * only the result is allocated.
+ *
+ * <p>Letters are limited to ASCII and the Latin-1 characters whose case mapping is one character
+ * to one character. Other characters are supported when they have no case mapping and are not
+ * letters, digits, marks or line separators, so that punctuation such as curly quotes and
+ * currency symbols does not prevent the fast path. Both methods return null for anything else
+ * so that the caller can fall back to the regular expressions.
+ */
+final class SentenceFormatter {
+
+    private static final int INITIAL_BUFFER_SIZE = 1024;
+    private static final int MAX_RETAINED_BUFFER_SIZE = 65_536;
+
+    private static final ThreadLocal<char[]> BUFFER =
+            ThreadLocal.withInitial(() -> new char[INITIAL_BUFFER_SIZE]);
+
+    private SentenceFormatter() {
+    }
+
+    /**
+     * Formats non-empty text as a sentence, or returns null if the text is not supported.
+     */
+    static String formatAsSentence(String text) {
+        if (!isSupported(text)) {
+            return null;
+        }
+        int length = text.length();
+        char[] buffer = buffer(length);
+        text.getChars(0, length, buffer, 0);
+        return new String(buffer, 0, recase(buffer, length));
+    }
+
+    /**
+     * Formats non-empty text as particulars, or returns null if the text is not supported.
+     */
+    static String formatAsParticulars(String text) {
+        if (!isSupported(text)) {
+            return null;
+        }
+        // One more than the text for the final full stop
+        char[] buffer = buffer(text.length() + 1);
+        int size = recase(buffer, joinEscapedNewlines(text, buffer));
+        if (size == 0 || buffer[size - 1] != '.') {
+            buffer[size++] = '.';
+        }
+        return new String(buffer, 0, size);
+    }
+
+    private static boolean isSupported(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char ch = text.charAt(i);
+            if (ch < 0x80 || ch >= 0xa0 && ch <= 0xfe && ch != 0xb5 && ch != 0xdf) {
+                continue;
+            }
+            if (ch < 0x100 || Character.isSurrogate(ch) || Character.isLetterOrDigit(ch)
+                    || isMark(ch) || ch == '\u2028' || ch == '\u2029'
+                    || Character.toUpperCase(ch) != ch || Character.toLowerCase(ch) != ch) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isMark(char ch) {
+        int type = Character.getType(ch);
+        return type == Character.NON_SPACING_MARK || type == Character.ENCLOSING_MARK
+                || type == Character.COMBINING_SPACING_MARK;
+    }
+
+    private static char[] buffer(int length) {
+        char[] buffer = BUFFER.get();
+        if (buffer.length >= length) {
+            return buffer;
+        }
+        buffer = new char[Math.max(length, buffer.length * 2)];
+        if (buffer.length <= MAX_RETAINED_BUFFER_SIZE) {
+            BUFFER.set(buffer);
+        }
+        return buffer;
+    }
+
+    /**
+     * Copies particulars into the buffer, replacing escaped newlines with full stops. Horizontal
+     * whitespace is collapsed and dropped before an escaped newline, repeated escaped newlines
+     * are joined and those at the start and end of the text are removed.
+     */
+    private static int joinEscapedNewlines(String text, char[] buffer) {
+        int length = text.length();
+        int size = 0;
+        int i = 0;
+        while (i < length) {
+            char ch = text.charAt(i);
+            if (isHorizontalWhitespace(ch)) {
+                while (i < length && isHorizontalWhitespace(text.charAt(i))) {
+                    i++;
+                }
+                if (!(i + 1 < length && text.charAt(i) == '\\' && text.charAt(i + 1) == 'n')) {
+                    buffer[size++] = ' ';
+                }
+            } else {
+                buffer[size++] = ch;
+                i++;
+            }
+        }
+
+        // Repeated escaped newlines become one
+        int joined = 0;
+        i = 0;
+        while (i < size) {
+            if (isEscapedNewline(buffer, size, i)) {
+                while (isEscapedNewline(buffer, size, i)) {
+                    i += 2;
+                }
+                buffer[joined++] = '\\';
+                buffer[joined++] = 'n';
+            } else {
+                buffer[joined++] = buffer[i++];
+            }
+        }
+        size = joined;
+
+        int start = isEscapedNewline(buffer, size, 0) ? 2 : 0;
+        size = removeFinalEscapedNewline(buffer, start, size);
+
+        // A backslash followed by any number of n's is a full stop, as in the original pattern
+        int result = 0;
+        i = start;
+        while (i < size) {
+            if (buffer[i] == '\\' && i + 1 < size && buffer[i + 1] == 'n') {
+                i++;
+                while (i < size && buffer[i] == 'n') {
+                    i++;
+                }
+                buffer[result++] = '.';
+                buffer[result++] = ' ';
+            } else {
+                buffer[result++] = buffer[i++];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Removes an escaped newline at the end of the text, or before a final line terminator.
+     */
+    private static int removeFinalEscapedNewline(char[] buffer, int start, int size) {
+        int terminator;
+        if (size >= 2 && buffer[size - 2] == '\r' && buffer[size - 1] == '\n') {
+            terminator = 2;
+        } else if (size >= 1 && (buffer[size - 1] == '\n' || buffer[size - 1] == '\r')) {
+            terminator = 1;
+        } else {
+            terminator = 0;
+        }
+        int newline = size - terminator - 2;
+        if (newline < start || !isEscapedNewline(buffer, size, newline)) {
+            return size;
+        }
+        System.arraycopy(buffer, newline + 2, buffer, newline, terminator);
+        return size - 2;
+    }
+
+    private static boolean isEscapedNewline(char[] buffer, int size, int index) {
+        return index >= 0 && index + 1 < size && buffer[index] == '\\' && buffer[index + 1] == 'n';
+    }
+
+    /**
+     * Recases the first {@code length} characters of the buffer as a sentence, returning the
+     * length of the result.
+     */
+    private static int recase(char[] buffer, int length) {
+        for (int i = 0; i < length; i++) {
+            buffer[i] = Character.toUpperCase(buffer[i]);
+        }
+        recaseTokens(buffer, forwardslashAbbreviationEnd(buffer, length), length);
+        int size = collapseWhitespace(buffer, length);
+        EntityNameFormatter.upperCaseMixedAlphanumerics(buffer, size);
+        EntityNameFormatter.upperCaseEntities(buffer, size);
+
+        int start = 0;
+        while (start < size && buffer[start] <= ' ') {
+            start++;
+        }
+        while (size > start && buffer[size - 1] <= ' ') {
+            size--;
+        }
+        System.arraycopy(buffer, start, buffer, 0, size - start);
+        return size - start;
+    }
+
+    /**
+     * End of a leading abbreviation such as {@code P/}, which is left uppercase, or 0.
+     */
+    private static int forwardslashAbbreviationEnd(char[] buffer, int length) {
+        if (length > 1 && buffer[1] == '/') {
+            return 2;
+        }
+        return length > 0 && buffer[0] == '/' ? 1 : 0;
+    }
+
+    /**
+     * Recases each token, a run of non-whitespace and the whitespace after it, carrying whether
+     * the previous token ended a sentence.
+     */
+    private static void recaseTokens(char[] buffer, int from, int length) {
+        boolean endOfSentence = true;
+        boolean matchingBracket = false;
+        int i = from;
+        while (i < length && EntityNameFormatter.isWhitespace(buffer[i])) {
+            i++;
+        }
+        while (i < length) {
+            int start = i;
+            while (i < length && !EntityNameFormatter.isWhitespace(buffer[i])) {
+                i++;
+            }
+            int wordEnd = i;
+            while (i < length && EntityNameFormatter.isWhitespace(buffer[i])) {
+                i++;
+            }
+
+            // A token whose only letter is I stays uppercase
+            boolean possessive = false;
+            boolean openingBracket = false;
+            boolean terminated = false;
+            for (int j = start; j < wordEnd; j++) {
+                char ch = buffer[j];
+                if ((ch == '(' || ch == '[') && !possessive) {
+                    openingBracket = true;
+                } else if (ch == 'I' && !possessive) {
+                    possessive = true;
+                    terminated = false;
+                } else if (isSentenceTerminator(ch)) {
+                    terminated = true;
+                } else if (isAsciiLetter(ch)) {
+                    possessive = false;
+                    break;
+                }
+            }
+            if (possessive) {
+                endOfSentence = terminated;
+                matchingBracket = openingBracket;
+                continue;
+            }
+
+            for (int j = start; j < i; j++) {
+                buffer[j] = Character.toLowerCase(buffer[j]);
+            }
+            if (endOfSentence) {
+                for (int j = start; j < wordEnd; j++) {
+                    if (isAsciiLetter(buffer[j])) {
+                        buffer[j] = Character.toUpperCase(buffer[j]);
+                        break;
+                    }
+                }
+                matchingBracket = isOpeningBracketLine(buffer, start, i);
+            }
+            endOfSentence = !isGeneralAbbreviation(buffer, start, wordEnd, i)
+                    && isEndOfSentence(buffer, start, i, matchingBracket);
+        }
+    }
+
+    /**
+     * Whether the token starts with an opening bracket and has no line terminator.
+     */
+    private static boolean isOpeningBracketLine(char[] buffer, int start, int end) {
+        if (buffer[start] != '(' && buffer[start] != '[') {
+            return false;
+        }
+        for (int j = start + 1; j < end; j++) {
+            if (buffer[j] == '\n' || buffer[j] == '\r') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Whether the token is followed by whitespace and all its letters are part of an
+     * abbreviation such as {@code etc.} or {@code b.a.}, so that it does not end a sentence.
+     */
+    private static boolean isGeneralAbbreviation(char[] buffer, int start, int wordEnd, int end) {
+        if (wordEnd == end) {
+            return false;
+        }
+        int firstLetter = -1;
+        int lastLetter = -1;
+        for (int j = start; j < wordEnd; j++) {
+            if (isAsciiLetter(buffer[j])) {
+                if (firstLetter < 0) {
+                    firstLetter = j;
+                }
+                lastLetter = j;
+            }
+        }
+        if (firstLetter < 0) {
+            return true;
+        }
+        for (String abbreviation : new String[] {"etc.", "pp.", "ph.d.", "phd."}) {
+            if (startsWithIgnoreCase(buffer, start, wordEnd, abbreviation)
+                    && start + abbreviation.length() > lastLetter) {
+                return true;
+            }
+        }
+        int j = firstLetter;
+        while (j + 1 < wordEnd && isAsciiLetter(buffer[j]) && buffer[j + 1] == '.') {
+            j += 2;
+        }
+        return j > lastLetter;
+    }
+
+    private static boolean startsWithIgnoreCase(char[] buffer, int start, int end, String prefix) {
+        if (end - start < prefix.length()) {
+            return false;
+        }
+        for (int k = 0; k < prefix.length(); k++) {
+            char ch = buffer[start + k];
+            if (ch >= 'A' && ch <= 'Z') {
+                ch += 'a' - 'A';
+            }
+            if (ch != prefix.charAt(k)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Whether a token ends a sentence: its last letter is followed by a terminator and the token
+     * by whitespace. A closing bracket after the terminator only counts when the token that
+     * started the sentence opened a bracket.
+     */
+    private static boolean isEndOfSentence(char[] buffer, int start, int end,
+                                           boolean matchingBracket) {
+        boolean letter = false;
+        boolean terminator = false;
+        boolean closingBracket = false;
+        for (int j = start; j < end; j++) {
+            char ch = buffer[j];
+            if (isAsciiLetter(ch)) {
+                letter = true;
+                terminator = false;
+                closingBracket = false;
+            } else if (isSentenceTerminator(ch)) {
+                terminator = true;
+                closingBracket = false;
+            } else if (ch == ']' || ch == ')') {
+                closingBracket = true;
+            }
+        }
+        boolean endSpace = EntityNameFormatter.isWhitespace(buffer[end - 1]);
+        return letter && terminator && endSpace && (!closingBracket || matchingBracket);
+    }
+
+    /**
+     * Collapses whitespace to single spaces and uppercases single letter abbreviations, a letter
+     * starting a word followed by a full stop.
+     */
+    private static int collapseWhitespace(char[] buffer, int length) {
+        int size = 0;
+        boolean previousWord = false;
+        boolean whitespace = false;
+        for (int i = 0; i < length; i++) {
+            char ch = buffer[i];
+            boolean word = EntityNameFormatter.isWord(ch);
+            if (EntityNameFormatter.isWhitespace(ch)) {
+                if (!whitespace) {
+                    buffer[size++] = ' ';
+                }
+                whitespace = true;
+            } else {
+                if (Character.isLetter(ch) && i + 1 < length && buffer[i + 1] == '.'
+                        && previousWord != word) {
+                    ch = Character.toUpperCase(ch);
+                }
+                buffer[size++] = ch;
+                whitespace = false;
+            }
+            previousWord = word;
+        }
+        return size;
+    }
+
+    private static boolean isAsciiLetter(char ch) {
+        return ch >= 'a' && ch <= 'z' || ch >= 'A' && ch <= 'Z';
+    }
+
+    private static boolean isSentenceTerminator(char ch) {
+        return ch == '.' || ch == '!' || ch == '?';
+    }
+
+    private static boolean isHorizontalWhitespace(char ch) {
+        return ch == ' ' || ch == '\t' || ch == '\u00a0' || ch == '\u1680' || ch == '\u180e'
+                || ch >= '\u2000' && ch <= '\u200a' || ch == '\u202f' || ch == '\u205f'
+                || ch == '\u3000';
+    }
+}
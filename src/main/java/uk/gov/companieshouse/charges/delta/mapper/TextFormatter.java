@@ -15,12 +15,12 @@ import org.springframework.stereotype.Component;
 @Component
 public class TextFormatter {
 
-    private static final Set<String> STOP_WORDS = new HashSet<>(Arrays.asList("A", "AN", "AT",
+    static final Set<String> STOP_WORDS = new HashSet<>(Arrays.asList("A", "AN", "AT",
             "AS", "AND", "ARE", "BUT", "BY", "ERE", "FOR", "FROM", "IN", "INTO", "IS", "OF", "ON",
             "ONTO", "OR", "OVER", "PER", "THE", "TO", "THAT", "THAN", "UNTIL", "UNTO", "UPON",
             "VIA", "WITH", "WHILE", "WHILST", "WITHIN", "WITHOUT"));
 
-    private static final Set<String> ENTITIES = new HashSet<>(Arrays.asList("ARD", "NI", "SE",
+    static final Set<String> ENTITIES = new HashSet<>(Arrays.asList("ARD", "NI", "SE",
             "GB", "SC", "UK", "LTD", "L.T.D", "PLC", "P.L.C", "UNLTD", "CIC", "C.I.C", "LLP",
             "L.P", "LP", "EEIG", "OEIC", "ICVC", "AEIE", "C.B.C", "C.C.C", "CBC", "CBCN", "CBP",
             "CCC", "CYF", "EESV", "EOFG", "EOOS", "GEIE", "GELE", "PAC", "PCCLIMITED", "PCCLTD",
@@ -75,6 +75,18 @@ public class TextFormatter {
      * @return Text recased in accordance to the above rules.
      */
     String formatAsEntityName(String text) {
+        if (StringUtils.isEmpty(text)) {
+            return text;
+        }
+        String formatted = EntityNameFormatter.format(text);
+        return formatted != null ? formatted : recaseAsEntityName(text);
+    }
+
+    /**
+     * Formats an entity name with one regular expression pass per rule. Used for text that
+     * {@link EntityNameFormatter} does not handle, and as the reference it is tested against.
+     */
+    static String recaseAsEntityName(String text) {
         if (StringUtils.isEmpty(text)) {
             return text;
         }
@@ -127,6 +139,18 @@ public class TextFormatter {
      * @return Text recased in accordance to the above rules.
      */
     String formatAsSentence(String text) {
+        if (StringUtils.isEmpty(text)) {
+            return text;
+        }
+        String formatted = SentenceFormatter.formatAsSentence(text);
+        return formatted != null ? formatted : recaseAsSentence(text);
+    }
+
+    /**
+     * Formats a sentence with regular expression passes. Used for text that
+     * {@link SentenceFormatter} does not handle, and as the reference it is tested against.
+     */
+    static String recaseAsSentence(String text) {
         if (StringUtils.isEmpty(text)) {
             return text;
         }
@@ -178,6 +202,18 @@ public class TextFormatter {
      * @return Text recased in accordance to the above rules.
      */
     String formatAsParticulars(String text) {
+        if (StringUtils.isEmpty(text)) {
+            return text;
+        }
+        String formatted = SentenceFormatter.formatAsParticulars(text);
+        return formatted != null ? formatted : recaseAsParticulars(text);
+    }
+
+    /**
+     * Formats particulars with regular expression passes. Used for text that
+     * {@link SentenceFormatter} does not handle, and as the reference it is tested against.
+     */
+    static String recaseAsParticulars(String text) {
         if (StringUtils.isEmpty(text)) {
             return text;
         }
@@ -187,7 +223,7 @@ public class TextFormatter {
                 .replaceAll("\\A\\\\n", "")
                 .replaceAll("\\\\n\\Z", "")
                 .replaceAll("\\\\n+", ". ");
-        text = formatAsSentence(text);
+        text = recaseAsSentence(text);
         if (!text.endsWith(".")) {
             text += ".";
         }
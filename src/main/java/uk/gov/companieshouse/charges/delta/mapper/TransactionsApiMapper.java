@@ -3,9 +3,6 @@ package uk.gov.companieshouse.charges.delta.mapper;
 import static org.apache.commons.lang3.StringUtils.isEmpty;
 import static org.apache.commons.lang3.StringUtils.trim;
 
-import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
-
 import org.apache.commons.lang3.StringUtils;
 import org.mapstruct.AfterMapping;
 import org.mapstruct.Context;
@@ -36,8 +33,8 @@ public interface TransactionsApiMapper {
     default void setDates(@MappingTarget TransactionsApi transactionsApi,
             AdditionalNotice additionalNotice) {
         if (!isEmpty(trim(additionalNotice.getDeliveredOn()))) {
-            transactionsApi.setDeliveredOn(LocalDate.parse(additionalNotice.getDeliveredOn(),
-                    DateTimeFormatter.ofPattern("yyyyMMdd")));
+            transactionsApi.setDeliveredOn(
+                    DeltaDates.parseDate(additionalNotice.getDeliveredOn()));
         }
     }
 
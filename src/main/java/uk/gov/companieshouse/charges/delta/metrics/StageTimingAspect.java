@@ -0,0 +1,91 @@
+package uk.gov.companieshouse.charges.delta.metrics;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.TimeUnit;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+import uk.gov.companieshouse.api.error.ApiErrorResponseException;
+import uk.gov.companieshouse.api.model.ApiResponse;
+
+/**
+ * Times each stage of processing a delta as {@code charges.delta.stage}.
+ *
+ * <p>Timers are tagged with the {@code operation}, the name of the method timed: {@code
+ * deserialize} for the Avro envelope, {@code decode} for the JSON delta, {@code transform},
+ * {@code chargeToChargeApi} for mapping a charge and formatting its descriptive text, the
+ * {@code encodeWith*} id encoding calls, and {@code putCharge} and {@code deleteCharge} against
+ * charges-data-api. The {@code status} tag is {@code success} or {@code failure}, or the HTTP
+ * status code for charges-data-api calls where one was received. Mapping and encoding made while
+ * transforming is also counted in the {@code transform} time. Percentile histograms are published
+ * unless {@code management.metrics.distribution.percentiles-histogram.charges.delta.stage} is
+ * false.
+ *
+ * <p>{@code chargeToChargeApi} is only timed through the descriptive mapper, so that is the only
+ * place the cost of text formatting shows up. The text formatter is not proxied and its calls are
+ * no longer timed individually.
+ */
+@Component
+@Aspect
+class StageTimingAspect {
+
+    static final String METRIC_NAME = "charges.delta.stage";
+    static final String OPERATION = "operation";
+    static final String STATUS = "status";
+    static final String SUCCESS = "success";
+    static final String FAILURE = "failure";
+
+    private final Meter.MeterProvider<Timer> timers;
+
+    StageTimingAspect(MeterRegistry meterRegistry) {
+        this.timers = Timer.builder(METRIC_NAME)
+                .description("Time taken by each stage of processing a charges delta")
+                .withRegistry(meterRegistry);
+    }
+
+    @Around("execution(* uk.gov.companieshouse.charges.delta.serialization.ChsDeltaDeserializer.deserialize(..))"
+            + " || execution(* uk.gov.companieshouse.charges.delta.serialization.ChargesDeltaJsonDecoder.decode(..))"
+            + " || execution(* uk.gov.companieshouse.charges.delta.transformer.ChargesApiTransformer.transform(..))"
+            + " || execution(* uk.gov.companieshouse.charges.delta.mapper.DescriptiveChargeApiMapper.chargeToChargeApi(..))"
+            + " || execution(* uk.gov.companieshouse.charges.delta.processor.EncoderUtil.encodeWith*(..))")
+    public Object timeStage(ProceedingJoinPoint joinPoint) throws Throwable {
+        long start = System.nanoTime();
+        String status = FAILURE;
+        try {
+            Object result = joinPoint.proceed();
+            status = SUCCESS;
+            return result;
+        } finally {
+            record(joinPoint, status, start);
+        }
+    }
+
+    @Around("execution(* uk.gov.companieshouse.charges.delta.service.ApiClientService.putCharge(..))"
+            + " || execution(* uk.gov.companieshouse.charges.delta.service.ApiClientService.deleteCharge(..))")
+    public Object timeApiCall(ProceedingJoinPoint joinPoint) throws Throwable {
+        long start = System.nanoTime();
+        String status = FAILURE;
+        try {
+            Object result = joinPoint.proceed();
+            status = result instanceof ApiResponse<?> response
+                    ? String.valueOf(response.getStatusCode()) : SUCCESS;
+            return result;
+        } catch (Exception ex) {
+            // Error responses are rethrown wrapped by the service
+            if (ex.getCause() instanceof ApiErrorResponseException responseException) {
+                status = String.valueOf(responseException.getStatusCode());
+            }
+            throw ex;
+        } finally {
+            record(joinPoint, status, start);
+        }
+    }
+
+    private void record(ProceedingJoinPoint joinPoint, String status, long start) {
+        timers.withTags(OPERATION, joinPoint.getSignature().getName(), STATUS, status)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+}
@@ -2,7 +2,8 @@ package uk.gov.companieshouse.charges.delta.processor;
 
 import static uk.gov.companieshouse.charges.delta.ChargesDeltaConsumerApplication.NAMESPACE;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.http.HttpStatus;
 import org.springframework.messaging.Message;
 import org.springframework.stereotype.Component;
@@ -15,11 +16,17 @@ import uk.gov.companieshouse.api.model.ApiResponse;
 import uk.gov.companieshouse.charges.delta.exception.NonRetryableErrorException;
 import uk.gov.companieshouse.charges.delta.exception.RetryableErrorException;
 import uk.gov.companieshouse.charges.delta.logging.DataMapHolder;
+import uk.gov.companieshouse.charges.delta.serialization.ChargesDeltaJsonDecoder;
 import uk.gov.companieshouse.charges.delta.service.ApiClientService;
+import uk.gov.companieshouse.charges.delta.store.ContentHashStore;
+import uk.gov.companieshouse.charges.delta.store.DeltaAtStore;
 import uk.gov.companieshouse.charges.delta.transformer.ChargesApiTransformer;
 import uk.gov.companieshouse.delta.ChsDelta;
 import uk.gov.companieshouse.logging.Logger;
 import uk.gov.companieshouse.logging.LoggerFactory;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
 import java.util.Collections;
 import java.util.EnumSet;
 import java.util.List;
@@ -33,11 +40,17 @@ public class ChargesDeltaProcessor {
 
     public static final String NON_RETRYABLE_RESPONSE_ERROR_MESSAGE = "Non-retryable response %s from charges-data-api";
     public static final String RETRYABLE_RESPONSE_ERROR_MESSAGE = "Retryable response %s from charges-data-api";
+    public static final String UNCHANGED_CHARGE_MESSAGE = "Skipping PUT as the charge is unchanged since it was last sent";
+    public static final String STALE_DELTA_MESSAGE = "Skipping delta at %s as a newer delta has been applied";
 
     private static final Logger LOGGER = LoggerFactory.getLogger(NAMESPACE);
     private final ChargesApiTransformer transformer;
     private final ApiClientService apiClientService;
     private final EncoderUtil encoderUtil;
+    private final DeltaAtStore deltaAtStore;
+    private final ContentHashStore contentHashStore;
+    private final ChargesDeltaJsonDecoder jsonDecoder;
+    private final Timer deltaAgeTimer;
     private final Set<HttpStatus> nonRetryableStatuses =
             Collections.unmodifiableSet(EnumSet.of(
                     HttpStatus.BAD_REQUEST,
@@ -48,10 +61,23 @@ public class ChargesDeltaProcessor {
      */
     public ChargesDeltaProcessor(ChargesApiTransformer transformer,
                                  ApiClientService apiClientService,
-                                 EncoderUtil encoderUtil) {
+                                 EncoderUtil encoderUtil,
+                                 DeltaAtStore deltaAtStore,
+                                 ContentHashStore contentHashStore,
+                                 ChargesDeltaJsonDecoder jsonDecoder,
+                                 MeterRegistry meterRegistry) {
         this.transformer = transformer;
         this.apiClientService = apiClientService;
         this.encoderUtil = encoderUtil;
+        this.deltaAtStore = deltaAtStore;
+        this.contentHashStore = contentHashStore;
+        this.jsonDecoder = jsonDecoder;
+        this.deltaAgeTimer = Timer.builder("charges.delta.age")
+                .description("Time from a charge delta's delta_at to its successful PUT to charges-data-api")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofSeconds(1))
+                .maximumExpectedValue(Duration.ofDays(7))
+                .register(meterRegistry);
     }
 
     /**
@@ -72,14 +98,33 @@ public class ChargesDeltaProcessor {
         DataMapHolder.get().mortgageId(rawChargeId);
         DataMapHolder.get().companyNumber(charge.getCompanyNumber());
 
-        InternalChargeApi internalChargeApi = transformer.transform(charge, chsDelta.getHeaders());
+        String chargeId = encoderUtil.encodeWithSha1(rawChargeId);
+        if (isStale(chargeId, charge.getDeltaAt())) {
+            return;
+        }
+
+        InternalChargeApi internalChargeApi = transformer.transform(charge, chargeId,
+                chsDelta.getHeaders());
 
         removeBrokenFilingLinks(internalChargeApi, charge.getCompanyNumber());
-        String chargeId = encoderUtil.encodeWithSha1(rawChargeId);
+
+        String contentHash = contentHashStore.hash(internalChargeApi.getExternalData());
+        if (contentHashStore.isUnchanged(chargeId, contentHash)) {
+            if (DataMapHolder.isSampled()) {
+                LOGGER.info(UNCHANGED_CHARGE_MESSAGE, DataMapHolder.getLogMap());
+            }
+            // The charge already holds this state, so this delta counts as applied
+            deltaAtStore.applied(chargeId, charge.getDeltaAt());
+            return;
+        }
+        contentHashStore.invalidate(chargeId);
 
         ApiResponse<Void> apiResponse = apiClientService.putCharge(charge.getCompanyNumber(), chargeId, internalChargeApi);;
 
         handleResponse(HttpStatus.valueOf(apiResponse.getStatusCode()));
+        recordDeltaAge(internalChargeApi.getInternalData().getDeltaAt());
+        deltaAtStore.applied(chargeId, charge.getDeltaAt());
+        contentHashStore.sent(chargeId, contentHash);
     }
 
     /**
@@ -98,17 +143,38 @@ public class ChargesDeltaProcessor {
         //pass in the chargeId and encode it with base64 after doing a SHA1 hash
         final String chargeId = encoderUtil.encodeWithSha1(chargeIdOptional.orElseThrow(
                 () -> new NonRetryableErrorException("Charge Id is empty!")));
+        if (isStale(chargeId, deltaAt)) {
+            return;
+        }
+        contentHashStore.invalidate(chargeId);
 
         final ApiResponse<Void> apiResponse = apiClientService.deleteCharge(companyNumber, chargeId, deltaAt);
 
         handleDeleteResponse(HttpStatus.valueOf(apiResponse.getStatusCode()));
+        deltaAtStore.applied(chargeId, deltaAt);
+    }
+
+    private void recordDeltaAge(OffsetDateTime deltaAt) {
+        if (deltaAt != null) {
+            // Negative ages, from clock skew, are ignored by the timer
+            deltaAgeTimer.record(Duration.between(deltaAt.toInstant(), Instant.now()));
+        }
+    }
+
+    private boolean isStale(String chargeId, String deltaAt) {
+        if (deltaAtStore.isStale(chargeId, deltaAt)) {
+            if (DataMapHolder.isSampled()) {
+                LOGGER.info(String.format(STALE_DELTA_MESSAGE, deltaAt), DataMapHolder.getLogMap());
+            }
+            return true;
+        }
+        return false;
     }
 
     private <T> T mapToChargesDelta(ChsDelta payload, Class<T> deltaclass)
             throws NonRetryableErrorException {
         try {
-            ObjectMapper mapper = new ObjectMapper();
-            return mapper.readValue(payload.getData(), deltaclass);
+            return jsonDecoder.decode(payload.getData(), deltaclass);
         } catch (Exception exception) {
             throw new NonRetryableErrorException("Error when extracting charges delta", exception);
         }
@@ -131,8 +197,10 @@ public class ChargesDeltaProcessor {
         DataMapHolder.get().status(httpStatus.toString());
 
         if (httpStatus.is2xxSuccessful()) {
-            LOGGER.info("Successfully invoked charges-data-api PUT endpoint",
-                    DataMapHolder.getLogMap());
+            if (DataMapHolder.isSampled()) {
+                LOGGER.info("Successfully invoked charges-data-api PUT endpoint",
+                        DataMapHolder.getLogMap());
+            }
         } else if (HttpStatus.CONFLICT == httpStatus || HttpStatus.BAD_REQUEST == httpStatus) {
             String message = String.format(NON_RETRYABLE_RESPONSE_ERROR_MESSAGE,
                     httpStatus);
@@ -158,7 +226,7 @@ public class ChargesDeltaProcessor {
                     DataMapHolder.getLogMap());
             throw new RetryableErrorException(String.format(RETRYABLE_RESPONSE_ERROR_MESSAGE,
                     httpStatus));
-        } else {
+        } else if (DataMapHolder.isSampled()) {
             LOGGER.info("Successfully invoked charges-data-api DELETE endpoint",
                     DataMapHolder.getLogMap());
         }
@@ -3,21 +3,27 @@ package uk.gov.companieshouse.charges.delta.processor;
 import static org.apache.commons.lang3.StringUtils.trim;
 
 import java.nio.charset.StandardCharsets;
-import org.apache.commons.codec.DecoderException;
-import org.apache.commons.codec.binary.Base64;
-import org.apache.commons.codec.binary.Hex;
+import java.security.MessageDigest;
+import java.util.Base64;
 import org.apache.commons.codec.digest.DigestUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
-import uk.gov.companieshouse.charges.delta.exception.NonRetryableErrorException;
 
 @Component
 public class EncoderUtil {
 
-    private String chargeIdSalt;
+    private static final Base64.Encoder URL_SAFE_ENCODER = Base64.getUrlEncoder().withoutPadding();
 
-    private String transIdSalt;
+    /**
+     * SHA-1 digests are not thread safe, so each thread keeps one and reuses it.
+     */
+    private static final ThreadLocal<MessageDigest> SHA1_DIGEST =
+            ThreadLocal.withInitial(DigestUtils::getSha1Digest);
+
+    private final byte[] chargeIdSalt;
+
+    private final String transIdSalt;
 
     /**
      * Initialize by passing in salts for chargeId and transId.
@@ -29,23 +35,26 @@ public class EncoderUtil {
     public EncoderUtil(@Value("${api.charge-id-salt}") String chargeIdSalt,
             @Value("${api.trans-id-salt}") String transIdSalt) {
 
-        this.chargeIdSalt = chargeIdSalt;
+        this.chargeIdSalt = String.valueOf(chargeIdSalt).getBytes(StandardCharsets.UTF_8);
         this.transIdSalt = transIdSalt;
     }
 
     public String base64Encode(final byte[] plainValue) {
 
-        return Base64.encodeBase64URLSafeString(plainValue);
+        return URL_SAFE_ENCODER.encodeToString(plainValue);
     }
 
     /**
-     * Apply SHA-1 digest algorithm on the value after concatenating with salt.
+     * Apply SHA-1 digest algorithm on the value followed by the salt.
      *
      * @param plainValue input String value
-     * @return returns sha1 encoded hex
+     * @return returns the sha1 digest
      */
-    public String getSha1Digest(final String plainValue) {
-        return DigestUtils.sha1Hex(plainValue + chargeIdSalt); //NOSONAR
+    public byte[] getSha1Digest(final String plainValue) {
+        MessageDigest digest = SHA1_DIGEST.get();
+        digest.update(String.valueOf(plainValue).getBytes(StandardCharsets.UTF_8));
+        digest.update(chargeIdSalt);
+        return digest.digest(); //NOSONAR
     }
 
     /**
@@ -55,12 +64,7 @@ public class EncoderUtil {
      * @return returns base64 encoded String with salt
      */
     public String encodeWithSha1(String plain) {
-        var sha1Value = getSha1Digest(trim(plain));
-        try {
-            return base64Encode(Hex.decodeHex(sha1Value));
-        } catch (DecoderException exception) {
-            throw new NonRetryableErrorException("Invalid hex encountered");
-        }
+        return base64Encode(getSha1Digest(trim(plain)));
     }
 
     /**
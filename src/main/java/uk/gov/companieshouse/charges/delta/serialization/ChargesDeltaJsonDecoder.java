@@ -0,0 +1,56 @@
+package uk.gov.companieshouse.charges.delta.serialization;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import uk.gov.companieshouse.api.delta.ChargesDeleteDelta;
+import uk.gov.companieshouse.api.delta.ChargesDelta;
+
+/**
+ * Decodes the JSON carried in a {@code ChsDelta}.
+ *
+ * <p>A single mapper is shared so that Jackson's deserializer cache is built once per type, and
+ * an {@link ObjectReader} is kept per target type. {@code charges.delta.json.blackbird-enabled}
+ * registers the Blackbird module, which replaces reflective property access with generated
+ * lambdas. It is off by default until {@code DeltaParseBenchmark} shows a gain.
+ */
+@Component
+public class ChargesDeltaJsonDecoder {
+
+    private final JsonMapper mapper;
+    private final Map<Class<?>, ObjectReader> readers = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor.
+     */
+    public ChargesDeltaJsonDecoder(@Value("${charges.delta.json.blackbird-enabled}") boolean blackbirdEnabled) {
+        JsonMapper.Builder builder = JsonMapper.builder();
+        if (blackbirdEnabled) {
+            builder.addModule(new BlackbirdModule());
+        }
+        this.mapper = builder.build();
+
+        // Build the readers, and their deserializers, up front rather than on the first message
+        readerFor(ChargesDelta.class);
+        readerFor(ChargesDeleteDelta.class);
+    }
+
+    /**
+     * Decodes JSON into the given type.
+     */
+    public <T> T decode(String json, Class<T> type) throws IOException {
+        return readerFor(type).readValue(json);
+    }
+
+    /**
+     * Returns the shared reader for a type.
+     */
+    public ObjectReader readerFor(Class<?> type) {
+        return readers.computeIfAbsent(type, mapper::readerFor);
+    }
+}
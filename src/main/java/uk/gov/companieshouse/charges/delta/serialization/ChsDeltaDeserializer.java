@@ -2,10 +2,10 @@ package uk.gov.companieshouse.charges.delta.serialization;
 
 import static uk.gov.companieshouse.charges.delta.ChargesDeltaConsumerApplication.NAMESPACE;
 
+import org.apache.avro.io.BinaryDecoder;
 import org.apache.avro.io.DatumReader;
-import org.apache.avro.io.Decoder;
 import org.apache.avro.io.DecoderFactory;
-import org.apache.avro.reflect.ReflectDatumReader;
+import org.apache.avro.specific.SpecificDatumReader;
 import org.apache.kafka.common.serialization.Deserializer;
 import org.springframework.stereotype.Component;
 import uk.gov.companieshouse.charges.delta.exception.NonRetryableErrorException;
@@ -19,12 +19,18 @@ public class ChsDeltaDeserializer implements Deserializer<ChsDelta> {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(NAMESPACE);
 
+    // Built once from the generated schema; datum readers are safe to share between threads
+    private static final DatumReader<ChsDelta> READER = new SpecificDatumReader<>(ChsDelta.class);
+
+    // Decoders hold buffer state, so each polling thread reuses its own
+    private static final ThreadLocal<BinaryDecoder> DECODER = new ThreadLocal<>();
+
     @Override
     public ChsDelta deserialize(String topic, byte[] data) {
         try {
-            Decoder decoder = DecoderFactory.get().binaryDecoder(data, null);
-            DatumReader<ChsDelta> reader = new ReflectDatumReader<>(ChsDelta.class);
-            return reader.read(null, decoder);
+            BinaryDecoder decoder = DecoderFactory.get().binaryDecoder(data, DECODER.get());
+            DECODER.set(decoder);
+            return READER.read(null, decoder);
         } catch (Exception ex) {
             LOGGER.error("De-Serialization exception while converting to Avro schema object", ex,
                     DataMapHolder.getLogMap());
@@ -32,4 +38,4 @@ public class ChsDeltaDeserializer implements Deserializer<ChsDelta> {
         }
     }
 
-}
\ No newline at end of file
+}
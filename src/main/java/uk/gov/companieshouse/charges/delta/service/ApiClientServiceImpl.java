@@ -20,7 +20,6 @@ import uk.gov.companieshouse.charges.delta.logging.DataMapHolder;
 import uk.gov.companieshouse.logging.Logger;
 import uk.gov.companieshouse.logging.LoggerFactory;
 import java.util.Arrays;
-import java.util.function.Supplier;
 
 
 /**
@@ -35,14 +34,14 @@ public class ApiClientServiceImpl implements ApiClientService {
     private static final String URI_VALIDATION_EXCEPTION_MESSAGE = "Invalid URI";
 
     private static final Logger LOGGER = LoggerFactory.getLogger(NAMESPACE);
-    private final Supplier<InternalApiClient> internalApiClientSupplier;
+    private final InternalApiClientPool internalApiClientPool;
 
     /**
      * Construct an {@link ApiClientServiceImpl}.
      */
     @Autowired
-    public ApiClientServiceImpl(Supplier<InternalApiClient> internalApiClientSupplier) {
-        this.internalApiClientSupplier = internalApiClientSupplier;
+    public ApiClientServiceImpl(InternalApiClientPool internalApiClientPool) {
+        this.internalApiClientPool = internalApiClientPool;
     }
 
     @Override
@@ -52,16 +51,18 @@ public class ApiClientServiceImpl implements ApiClientService {
         final String formattedUri = String.format(PUT_CHARGE_URI, companyNumber, chargeId);
         DataMapHolder.get().uri(formattedUri);
 
-        InternalApiClient internalApiClient = internalApiClientSupplier.get();
-        internalApiClient.getHttpClient().setRequestId(DataMapHolder.getRequestId());
-
-        PrivateChargesUpsert privateChargesUpsert =
-                internalApiClient
-                        .privateDeltaChargeResourceHandler()
-                        .putCharge()
-                        .upsert(formattedUri, internalChargeApi);
-
-        return execute(privateChargesUpsert);
+        InternalApiClient internalApiClient = internalApiClientPool.borrow(DataMapHolder.getRequestId());
+        try {
+            PrivateChargesUpsert privateChargesUpsert =
+                    internalApiClient
+                            .privateDeltaChargeResourceHandler()
+                            .putCharge()
+                            .upsert(formattedUri, internalChargeApi);
+
+            return execute(privateChargesUpsert);
+        } finally {
+            internalApiClientPool.release(internalApiClient);
+        }
     }
 
     @Override
@@ -69,14 +70,16 @@ public class ApiClientServiceImpl implements ApiClientService {
         final String formattedUri = String.format(DELETE_CHARGE_URI, companyNumber, chargeId);
         DataMapHolder.get().uri(formattedUri);
 
-        InternalApiClient internalApiClient = internalApiClientSupplier.get();
-        internalApiClient.getHttpClient().setRequestId(DataMapHolder.getRequestId());
-
-        PrivateChargesDelete executor = internalApiClient
-                .privateDeltaChargeResourceHandler()
-                .deleteCharge(formattedUri, deltaAt);
+        InternalApiClient internalApiClient = internalApiClientPool.borrow(DataMapHolder.getRequestId());
+        try {
+            PrivateChargesDelete executor = internalApiClient
+                    .privateDeltaChargeResourceHandler()
+                    .deleteCharge(formattedUri, deltaAt);
 
-        return execute(executor);
+            return execute(executor);
+        } finally {
+            internalApiClientPool.release(internalApiClient);
+        }
     }
 
     private ApiResponse<Void> execute(Executor<ApiResponse<Void>> executor) {
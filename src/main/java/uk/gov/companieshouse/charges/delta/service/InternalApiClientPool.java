@@ -0,0 +1,106 @@
+package uk.gov.companieshouse.charges.delta.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import uk.gov.companieshouse.api.InternalApiClient;
+import uk.gov.companieshouse.charges.delta.exception.RetryableErrorException;
+
+/**
+ * Bounded pool of long-lived {@link InternalApiClient}s.
+ *
+ * <p>A client carries the request id of the call it is making, so it is only ever used by one
+ * thread at a time: callers borrow a client, set the request id and return it when the call has
+ * completed. Clients are created on demand up to {@code api.client-pool.max-size} and reused
+ * afterwards.
+ *
+ * <p>The {@code charges.api.client.pool.*} metrics describe borrowed SDK clients, not HTTP
+ * connections. Connections are pooled by the JDK HTTP client for the whole JVM, under the
+ * {@code http.keepAlive} and {@code http.maxConnections} system properties set at startup.
+ */
+@Component
+public class InternalApiClientPool {
+
+    private static final String METRIC_PREFIX = "charges.api.client.pool";
+
+    private final Supplier<InternalApiClient> internalApiClientSupplier;
+    private final ConcurrentLinkedQueue<InternalApiClient> idleClients = new ConcurrentLinkedQueue<>();
+    private final Semaphore permits;
+    private final int maxSize;
+    private final long borrowTimeoutMillis;
+    private final Timer waitTimer;
+
+    /**
+     * Construct an {@link InternalApiClientPool}.
+     */
+    public InternalApiClientPool(Supplier<InternalApiClient> internalApiClientSupplier,
+                                 @Value("${api.client-pool.max-size}") int maxSize,
+                                 @Value("${api.client-pool.borrow-timeout}") long borrowTimeoutMillis,
+                                 MeterRegistry meterRegistry) {
+        this.internalApiClientSupplier = internalApiClientSupplier;
+        this.maxSize = maxSize;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.permits = new Semaphore(maxSize, true);
+
+        this.waitTimer = Timer.builder(METRIC_PREFIX + ".wait")
+                .description("Time spent waiting to borrow a charges-data-api SDK client")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".active", this, InternalApiClientPool::getActiveCount)
+                .description("charges-data-api SDK clients currently borrowed")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".idle", idleClients, ConcurrentLinkedQueue::size)
+                .description("charges-data-api SDK clients waiting to be borrowed")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".max", this, pool -> pool.maxSize)
+                .description("Maximum number of charges-data-api SDK clients")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Borrows a client for a single request, waiting for one to be returned when all are in use.
+     * The client must be given back with {@link #release(InternalApiClient)}.
+     */
+    public InternalApiClient borrow(String requestId) {
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new RetryableErrorException("Timed out waiting for a charges-data-api client");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RetryableErrorException("Interrupted waiting for a charges-data-api client", ex);
+        } finally {
+            waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+
+        InternalApiClient internalApiClient = idleClients.poll();
+        if (internalApiClient == null) {
+            try {
+                internalApiClient = internalApiClientSupplier.get();
+            } catch (RuntimeException ex) {
+                permits.release();
+                throw ex;
+            }
+        }
+        internalApiClient.getHttpClient().setRequestId(requestId);
+        return internalApiClient;
+    }
+
+    /**
+     * Returns a borrowed client to the pool.
+     */
+    public void release(InternalApiClient internalApiClient) {
+        idleClients.offer(internalApiClient);
+        permits.release();
+    }
+
+    int getActiveCount() {
+        return maxSize - permits.availablePermits();
+    }
+}
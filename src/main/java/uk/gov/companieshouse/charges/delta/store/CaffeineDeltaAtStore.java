@@ -0,0 +1,73 @@
+package uk.gov.companieshouse.charges.delta.store;
+
+import static uk.gov.companieshouse.charges.delta.ChargesDeltaConsumerApplication.NAMESPACE;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.util.Optional;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import uk.gov.companieshouse.charges.delta.logging.DataMapHolder;
+import uk.gov.companieshouse.logging.Logger;
+import uk.gov.companieshouse.logging.LoggerFactory;
+
+/**
+ * Bounded in-memory store of the last applied {@code delta_at} per encoded charge id. The least
+ * recently used charges are evicted once {@code charges.delta.delta-at-store.max-entries} is
+ * reached; an evicted charge is simply sent to charges-data-api again.
+ *
+ * <p>When a {@link DeltaAtChangelog} is configured every update is also written to it and the
+ * store is rebuilt from it on startup.
+ */
+@Component
+@ConditionalOnProperty(prefix = "charges.delta.delta-at-store", name = "enabled", havingValue = "true")
+public class CaffeineDeltaAtStore implements DeltaAtStore, InitializingBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(NAMESPACE);
+
+    private final Cache<String, String> lastApplied;
+    private final Optional<DeltaAtChangelog> changelog;
+
+    /**
+     * Constructor.
+     */
+    public CaffeineDeltaAtStore(@Value("${charges.delta.delta-at-store.max-entries}") long maxEntries,
+                                Optional<DeltaAtChangelog> changelog) {
+        this.lastApplied = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .build();
+        this.changelog = changelog;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        changelog.ifPresent(log -> {
+            long restored = log.replay(this::merge);
+            LOGGER.info(String.format("Restored %d delta_at entries from changelog", restored),
+                    DataMapHolder.getLogMap());
+        });
+    }
+
+    @Override
+    public boolean isStale(String chargeId, String deltaAt) {
+        String lastAppliedDeltaAt = lastApplied.getIfPresent(chargeId);
+        return lastAppliedDeltaAt != null && deltaAt != null
+                && DeltaAtComparator.INSTANCE.compare(deltaAt, lastAppliedDeltaAt) < 0;
+    }
+
+    @Override
+    public void applied(String chargeId, String deltaAt) {
+        if (deltaAt == null) {
+            return;
+        }
+        merge(chargeId, deltaAt);
+        changelog.ifPresent(log -> log.append(chargeId, deltaAt));
+    }
+
+    private void merge(String chargeId, String deltaAt) {
+        lastApplied.asMap().merge(chargeId, deltaAt, (current, candidate) ->
+                DeltaAtComparator.INSTANCE.compare(candidate, current) > 0 ? candidate : current);
+    }
+}
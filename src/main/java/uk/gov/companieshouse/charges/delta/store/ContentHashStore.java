@@ -0,0 +1,145 @@
+package uk.gov.companieshouse.charges.delta.store;
+
+import static uk.gov.companieshouse.charges.delta.ChargesDeltaConsumerApplication.NAMESPACE;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HexFormat;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
+import org.springframework.stereotype.Component;
+import uk.gov.companieshouse.api.charges.ChargeApi;
+import uk.gov.companieshouse.charges.delta.logging.DataMapHolder;
+import uk.gov.companieshouse.logging.Logger;
+import uk.gov.companieshouse.logging.LoggerFactory;
+
+/**
+ * Remembers a hash of the last charge sent to charges-data-api per encoded charge id, so that a
+ * re-emitted delta that maps to exactly the same charge does not cause another PUT.
+ *
+ * <p>Hashes are taken over a canonical JSON form of the charge (properties and map entries in
+ * sorted order). An entry is removed before each PUT or DELETE and only written back once a PUT
+ * has succeeded, so a failed or unknown outcome is never treated as unchanged. Disabled unless
+ * {@code charges.delta.content-hash.enabled} is set.
+ *
+ * <p>The hashes only describe what this instance sent, so they are all forgotten whenever a
+ * partition is revoked or lost: another instance may change a charge while it owns the
+ * partition. A skipped PUT also leaves the charge's delta_at unchanged in charges-data-api, so
+ * the store can only be enabled together with the delta_at store and its changelog, which then
+ * drop older deltas, including after a restart or a rebalance.
+ */
+@Component
+public class ContentHashStore implements ConsumerAwareRebalanceListener {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(NAMESPACE);
+
+    private static final ObjectWriter CANONICAL_WRITER = JsonMapper.builder()
+            .addModule(new JavaTimeModule())
+            .enable(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY)
+            .enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build()
+            .writer();
+
+    private final boolean enabled;
+    private final Cache<String, String> lastSent;
+    private final Counter unchangedCounter;
+
+    /**
+     * Constructor.
+     */
+    public ContentHashStore(@Value("${charges.delta.content-hash.enabled}") boolean enabled,
+                            @Value("${charges.delta.delta-at-store.enabled}") boolean deltaAtStoreEnabled,
+                            @Value("${charges.delta.delta-at-store.changelog.enabled}") boolean deltaAtChangelogEnabled,
+                            @Value("${charges.delta.content-hash.max-entries}") long maxEntries,
+                            MeterRegistry meterRegistry) {
+        if (enabled && !(deltaAtStoreEnabled && deltaAtChangelogEnabled)) {
+            throw new IllegalStateException("charges.delta.content-hash.enabled requires "
+                    + "charges.delta.delta-at-store.enabled and "
+                    + "charges.delta.delta-at-store.changelog.enabled");
+        }
+        this.enabled = enabled;
+        this.lastSent = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .build();
+        this.unchangedCounter = Counter.builder("charges.delta.put.skipped.unchanged")
+                .description("PUTs skipped because the charge is unchanged since it was last sent")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the content hash of a charge, or null when the store is disabled or the charge
+     * could not be hashed, in which case it is always sent.
+     */
+    public String hash(ChargeApi chargeApi) {
+        if (!enabled) {
+            return null;
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(CANONICAL_WRITER.writeValueAsBytes(chargeApi)));
+        } catch (JsonProcessingException | NoSuchAlgorithmException ex) {
+            LOGGER.error("Unable to hash charge", ex, DataMapHolder.getLogMap());
+            return null;
+        }
+    }
+
+    /**
+     * Returns true, and counts the skipped PUT, when the charge was last sent with the same hash.
+     */
+    public boolean isUnchanged(String chargeId, String hash) {
+        if (hash == null || !hash.equals(lastSent.getIfPresent(chargeId))) {
+            return false;
+        }
+        unchangedCounter.increment();
+        return true;
+    }
+
+    /**
+     * Records the hash of a charge that charges-data-api has accepted.
+     */
+    public void sent(String chargeId, String hash) {
+        if (hash != null) {
+            lastSent.put(chargeId, hash);
+        }
+    }
+
+    /**
+     * Forgets the charge, so the next delta for it is always sent.
+     */
+    public void invalidate(String chargeId) {
+        if (enabled) {
+            lastSent.invalidate(chargeId);
+        }
+    }
+
+    @Override
+    public void onPartitionsRevokedAfterCommit(Consumer<?, ?> consumer,
+                                               Collection<TopicPartition> partitions) {
+        forgetAll(partitions);
+    }
+
+    @Override
+    public void onPartitionsLost(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        forgetAll(partitions);
+    }
+
+    private void forgetAll(Collection<TopicPartition> partitions) {
+        if (enabled && !partitions.isEmpty()) {
+            lastSent.invalidateAll();
+        }
+    }
+}
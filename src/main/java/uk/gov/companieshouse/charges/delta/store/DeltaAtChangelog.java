@@ -0,0 +1,131 @@
+package uk.gov.companieshouse.charges.delta.store;
+
+import static uk.gov.companieshouse.charges.delta.ChargesDeltaConsumerApplication.NAMESPACE;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.TimeoutException;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import uk.gov.companieshouse.charges.delta.logging.DataMapHolder;
+import uk.gov.companieshouse.logging.Logger;
+import uk.gov.companieshouse.logging.LoggerFactory;
+
+/**
+ * Compacted Kafka topic holding the last applied {@code delta_at} per encoded charge id, used to
+ * rebuild the {@link CaffeineDeltaAtStore} when the service starts. The topic must be created
+ * with {@code cleanup.policy=compact}.
+ */
+@Component
+@ConditionalOnProperty(prefix = "charges.delta.delta-at-store", name = {"enabled", "changelog.enabled"},
+        havingValue = "true")
+public class DeltaAtChangelog implements DisposableBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(NAMESPACE);
+    private static final Duration POLL_TIMEOUT = Duration.ofMillis(500);
+    private static final Duration METADATA_TIMEOUT = Duration.ofSeconds(30);
+
+    private final String bootstrapServers;
+    private final String topic;
+    private final KafkaProducer<String, String> producer;
+
+    /**
+     * Constructor.
+     */
+    public DeltaAtChangelog(@Value("${spring.kafka.bootstrap-servers}") String bootstrapServers,
+                            @Value("${charges.delta.delta-at-store.changelog.topic}") String topic) {
+        this.bootstrapServers = bootstrapServers;
+        this.topic = topic;
+
+        Map<String, Object> props = new HashMap<>();
+        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ProducerConfig.LINGER_MS_CONFIG, 50);
+        this.producer = new KafkaProducer<>(props, new StringSerializer(), new StringSerializer());
+    }
+
+    /**
+     * Appends the last applied {@code delta_at} of a charge. A failed write is only logged, as the
+     * store is an optimisation and charges-data-api still rejects stale deltas.
+     */
+    public void append(String chargeId, String deltaAt) {
+        producer.send(new ProducerRecord<>(topic, chargeId, deltaAt), (metadata, ex) -> {
+            if (ex != null) {
+                LOGGER.error("Failed to write delta_at changelog entry", ex, DataMapHolder.getLogMap());
+            }
+        });
+    }
+
+    /**
+     * Reads the changelog from the beginning up to its current end, returning the number of
+     * entries read. Fails if the topic does not exist or its partitions cannot be found in time.
+     */
+    public long replay(BiConsumer<String, String> entryConsumer) {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, "false");
+        props.put(ConsumerConfig.ISOLATION_LEVEL_CONFIG, "read_committed");
+
+        long entries = 0;
+        try (KafkaConsumer<String, String> consumer =
+                     new KafkaConsumer<>(props, new StringDeserializer(), new StringDeserializer())) {
+            List<TopicPartition> partitions = partitions(consumer);
+            consumer.assign(partitions);
+            consumer.seekToBeginning(partitions);
+            Map<TopicPartition, Long> endOffsets = consumer.endOffsets(partitions);
+
+            while (!reachedEnd(consumer, endOffsets)) {
+                for (ConsumerRecord<String, String> consumerRecord : consumer.poll(POLL_TIMEOUT)) {
+                    if (consumerRecord.key() != null && consumerRecord.value() != null) {
+                        entryConsumer.accept(consumerRecord.key(), consumerRecord.value());
+                        entries++;
+                    }
+                }
+            }
+        }
+        return entries;
+    }
+
+    @Override
+    public void destroy() {
+        producer.close();
+    }
+
+    private List<TopicPartition> partitions(KafkaConsumer<String, String> consumer) {
+        List<PartitionInfo> partitionInfos;
+        try {
+            partitionInfos = consumer.partitionsFor(topic, METADATA_TIMEOUT);
+        } catch (TimeoutException ex) {
+            throw new IllegalStateException(String.format(
+                    "Timed out finding the partitions of delta_at changelog topic %s", topic), ex);
+        }
+        if (partitionInfos == null || partitionInfos.isEmpty()) {
+            throw new IllegalStateException(String.format(
+                    "delta_at changelog topic %s does not exist; create it with cleanup.policy=compact"
+                            + " or disable charges.delta.delta-at-store.changelog", topic));
+        }
+        return partitionInfos.stream()
+                .map(info -> new TopicPartition(info.topic(), info.partition()))
+                .toList();
+    }
+
+    private static boolean reachedEnd(KafkaConsumer<String, String> consumer,
+                                      Map<TopicPartition, Long> endOffsets) {
+        return endOffsets.entrySet().stream()
+                .allMatch(entry -> consumer.position(entry.getKey()) >= entry.getValue());
+    }
+}
@@ -0,0 +1,20 @@
+package uk.gov.companieshouse.charges.delta.store;
+
+import java.util.Comparator;
+
+/**
+ * Orders {@code delta_at} timestamps numerically without parsing them.
+ */
+public final class DeltaAtComparator implements Comparator<String> {
+
+    public static final DeltaAtComparator INSTANCE = new DeltaAtComparator();
+
+    private DeltaAtComparator() {
+    }
+
+    @Override
+    public int compare(String left, String right) {
+        int byLength = Integer.compare(left.length(), right.length());
+        return byLength != 0 ? byLength : left.compareTo(right);
+    }
+}
@@ -0,0 +1,18 @@
+package uk.gov.companieshouse.charges.delta.store;
+
+/**
+ * Records the {@code delta_at} of the last delta successfully applied to each charge, so that
+ * older deltas can be dropped before they are mapped and sent to charges-data-api.
+ */
+public interface DeltaAtStore {
+
+    /**
+     * Returns true when a newer delta has already been applied to the charge.
+     */
+    boolean isStale(String chargeId, String deltaAt);
+
+    /**
+     * Records that a delta has been successfully applied to the charge.
+     */
+    void applied(String chargeId, String deltaAt);
+}
@@ -0,0 +1,23 @@
+package uk.gov.companieshouse.charges.delta.store;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Used when the store is disabled; every delta is sent to charges-data-api.
+ */
+@Component
+@ConditionalOnProperty(prefix = "charges.delta.delta-at-store", name = "enabled",
+        havingValue = "false", matchIfMissing = true)
+public class DisabledDeltaAtStore implements DeltaAtStore {
+
+    @Override
+    public boolean isStale(String chargeId, String deltaAt) {
+        return false;
+    }
+
+    @Override
+    public void applied(String chargeId, String deltaAt) {
+        // Nothing is recorded
+    }
+}
@@ -2,13 +2,7 @@ package uk.gov.companieshouse.charges.delta.transformer;
 
 import static org.apache.commons.lang3.StringUtils.isEmpty;
 import static org.apache.commons.lang3.StringUtils.trim;
-import static uk.gov.companieshouse.charges.delta.ChargesDeltaConsumerApplication.NAMESPACE;
 
-import java.time.LocalDate;
-import java.time.OffsetDateTime;
-import java.time.ZoneId;
-import java.time.ZonedDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.Comparator;
 import java.util.Objects;
 
@@ -25,12 +19,11 @@ import uk.gov.companieshouse.api.charges.TransactionsApi;
 import uk.gov.companieshouse.api.charges.TransactionsLinks;
 import uk.gov.companieshouse.api.delta.Charge;
 import uk.gov.companieshouse.charges.delta.exception.RetryableErrorException;
-import uk.gov.companieshouse.charges.delta.logging.DataMapHolder;
+import uk.gov.companieshouse.charges.delta.logging.TraceLogging;
 import uk.gov.companieshouse.charges.delta.mapper.ChargeApiMapper;
+import uk.gov.companieshouse.charges.delta.mapper.DeltaDates;
 import uk.gov.companieshouse.charges.delta.mapper.NoticeTypeMapperUtils;
 import uk.gov.companieshouse.charges.delta.processor.EncoderUtil;
-import uk.gov.companieshouse.logging.Logger;
-import uk.gov.companieshouse.logging.LoggerFactory;
 
 @Component
 public class ChargesApiTransformer {
@@ -40,7 +33,6 @@ public class ChargesApiTransformer {
     public static final String CHARGES = "/charges/";
     public static final String DEFAULT_FILING_TYPE = "";
 
-    private static final Logger LOGGER = LoggerFactory.getLogger(NAMESPACE);
     private final ChargeApiMapper chargeApiMapper;
     private EncoderUtil encoderUtil;
 
@@ -56,35 +48,38 @@ public class ChargesApiTransformer {
 
     /**
      * Transforms a Charge object within ChargesDelta object into an InternalChargeApi using
-     * mapstruct.
+     * mapstruct, using a charge id the caller has already encoded for the self link.
      *
      * @param charge source object
+     * @param encodedChargeId charge id encoded with {@link EncoderUtil#encodeWithSha1(String)}
      * @return source object mapped to InternalChargeApi
      */
-    public InternalChargeApi transform(Charge charge, MessageHeaders headers) {
-        LOGGER.trace(String.format("Charge message to be transformed "
-                + ": %s", charge), DataMapHolder.getLogMap());
+    public InternalChargeApi transform(Charge charge, String encodedChargeId,
+            MessageHeaders headers) {
+        TraceLogging.trace(() -> String.format("Charge message to be transformed "
+                + ": %s", charge));
         try {
             ChargeApi chargeApi = chargeApiMapper.chargeToChargeApi(charge,
                     charge.getCompanyNumber());
-            updateChargeApiWithLinks(charge, chargeApi, charge.getCompanyNumber());
+            updateChargeApiWithLinks(charge, chargeApi, charge.getCompanyNumber(),
+                    encodedChargeId);
             InternalChargeApi internalChargeApi = new InternalChargeApi();
             internalChargeApi.setExternalData(chargeApi);
             updateInternalChargeApi(
                     getKafkaHeader(headers, KafkaHeaders.RECEIVED_TOPIC),
                     getKafkaHeader(headers, KafkaHeaders.RECEIVED_PARTITION),
                     getKafkaHeader(headers, KafkaHeaders.OFFSET), internalChargeApi, charge);
-            LOGGER.trace(String.format("Charge message transformed to InternalChargeApi "
-                    + ": %s", internalChargeApi), DataMapHolder.getLogMap());
+            TraceLogging.trace(() -> String.format("Charge message transformed to InternalChargeApi "
+                    + ": %s", internalChargeApi));
             return internalChargeApi;
-        } catch (Exception ex) {
+        } catch (RuntimeException ex) {
             throw new RetryableErrorException("Unable to map Charge delta to Charge API object",
                     ex);
         }
     }
 
     private void updateChargeApiWithLinks(Charge charge, ChargeApi chargeApi,
-            String companyNumber) {
+            String companyNumber, String encodedChargeId) {
         if (chargeApi.getTransactions() != null) {
             for (TransactionsApi transactionsApi : chargeApi.getTransactions()) {
                 if (transactionsApi.getLinks() != null
@@ -99,8 +94,7 @@ public class ChargesApiTransformer {
         }
         mapTransIdAndNoticeType(charge, chargeApi,companyNumber);
         ChargeLink chargeLink = new ChargeLink();
-        chargeLink.setSelf(COMPANY + companyNumber + CHARGES
-                + encoderUtil.encodeWithSha1(charge.getId()));
+        chargeLink.setSelf(COMPANY + companyNumber + CHARGES + encodedChargeId);
         chargeApi.setLinks(chargeLink);
     }
 
@@ -109,7 +103,7 @@ public class ChargesApiTransformer {
         final String updatedBy = String.format("%s-%s-%s", receivedTopic, partition, offset);
         InternalData internalData = new InternalData();
         internalData.setUpdatedBy(updatedBy);
-        internalData.setDeltaAt(stringToOffsetDateTime(charge.getDeltaAt()));
+        internalData.setDeltaAt(DeltaDates.parseDateTime(charge.getDeltaAt()));
         internalChargeApi.setInternalData(internalData);
     }
 
@@ -133,8 +127,7 @@ public class ChargesApiTransformer {
 
         transactionsApi.setFilingType(getFilingType(charge));
         if (!isEmpty(trim(charge.getDeliveredOn()))) {
-            transactionsApi.setDeliveredOn(LocalDate.parse(charge.getDeliveredOn(),
-                    DateTimeFormatter.ofPattern("yyyyMMdd")));
+            transactionsApi.setDeliveredOn(DeltaDates.parseDate(charge.getDeliveredOn()));
         }
 
         if (chargeApi.getTransactions() != null) {
@@ -161,11 +154,4 @@ public class ChargesApiTransformer {
         return String.format(COMPANY + "%s" + FILING_HISTORY + "%s",
                 companyNumber, encoderUtil.encodeWithoutSha1(id));
     }
-
-    private OffsetDateTime stringToOffsetDateTime(String date) {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyyMMddHHmmssSSSSSS")
-                .withZone(ZoneId.of("Z"));
-        ZonedDateTime datetime = ZonedDateTime.parse(date, formatter);
-        return datetime.toOffsetDateTime();
-    }
-}
\ No newline at end of file
+}
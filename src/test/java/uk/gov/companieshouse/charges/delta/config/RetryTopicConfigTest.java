@@ -0,0 +1,71 @@
+package uk.gov.companieshouse.charges.delta.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.CompletableFuture;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaOperations;
+import org.springframework.kafka.listener.ListenerExecutionFailedException;
+import org.springframework.kafka.retrytopic.DeadLetterPublishingRecovererFactory;
+import org.springframework.kafka.retrytopic.DestinationTopic;
+import org.springframework.kafka.retrytopic.DestinationTopicResolver;
+import org.springframework.kafka.retrytopic.DltStrategy;
+import org.springframework.kafka.retrytopic.RetryTopicHeaders;
+import uk.gov.companieshouse.charges.delta.exception.ErrorCategory;
+import uk.gov.companieshouse.charges.delta.exception.RetryableErrorException;
+
+@ExtendWith(MockitoExtension.class)
+class RetryTopicConfigTest {
+
+    private static final String MAIN_TOPIC = "charges-delta";
+    private static final String RETRY_TOPIC = "charges-delta-charges-delta-consumer-retry";
+
+    @Mock
+    private DestinationTopicResolver destinationTopicResolver;
+
+    @Mock
+    private KafkaOperations<Object, Object> kafkaOperations;
+
+    @Test
+    @DisplayName("Records published to the retry topic carry the retry topic headers and the error category")
+    void When_RecordRecovered_Expect_AttemptsAndCategoryHeaders() {
+        DestinationTopic retryTopic = new DestinationTopic(RETRY_TOPIC,
+                new DestinationTopic.Properties(100, "-retry", DestinationTopic.Type.REUSABLE_RETRY_TOPIC,
+                        4, 1, DltStrategy.FAIL_ON_ERROR, kafkaOperations, (attempt, ex) -> true,
+                        Long.MAX_VALUE));
+        when(destinationTopicResolver.resolveDestinationTopic(any(), any(), any(), any(), anyLong()))
+                .thenReturn(retryTopic);
+        when(destinationTopicResolver.getDestinationTopicByName(any(), any())).thenReturn(retryTopic);
+        when(kafkaOperations.send(any(ProducerRecord.class)))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        DeadLetterPublishingRecovererFactory factory =
+                new DeadLetterPublishingRecovererFactory(destinationTopicResolver);
+        new RetryTopicConfig().configureDeadLetterPublishingContainerFactory().accept(factory);
+
+        factory.create("listener").accept(new ConsumerRecord<>(MAIN_TOPIC, 0, 0L, "key", "value"),
+                new ListenerExecutionFailedException("failed",
+                        new RetryableErrorException("charges-data-api unavailable")));
+
+        ArgumentCaptor<ProducerRecord<Object, Object>> captor = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(kafkaOperations).send(captor.capture());
+        ProducerRecord<Object, Object> published = captor.getValue();
+        assertThat(published.topic()).isEqualTo(RETRY_TOPIC);
+        assertThat(published.headers().lastHeader(RetryTopicHeaders.DEFAULT_HEADER_ATTEMPTS)).isNotNull();
+        assertThat(published.headers().lastHeader(RetryTopicHeaders.DEFAULT_HEADER_BACKOFF_TIMESTAMP))
+                .isNotNull();
+        assertThat(ErrorCategory.of(published.headers().lastHeader(ErrorCategory.HEADER)))
+                .isEqualTo(ErrorCategory.RETRYABLE);
+    }
+}
@@ -0,0 +1,167 @@
+package uk.gov.companieshouse.charges.delta.consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import java.util.List;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.KafkaException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.kafka.support.KafkaNull;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.backoff.FixedBackOff;
+import uk.gov.companieshouse.charges.delta.exception.NonRetryableErrorException;
+import uk.gov.companieshouse.charges.delta.exception.RetryableErrorException;
+import uk.gov.companieshouse.charges.delta.logging.MessageLogSampler;
+import uk.gov.companieshouse.charges.delta.serialization.ChargesDeltaJsonDecoder;
+import uk.gov.companieshouse.delta.ChsDelta;
+
+@ExtendWith(MockitoExtension.class)
+class ChargesDeltaBatchConsumerTest {
+    private static final String TOPIC = "charges-delta";
+    private static final long PUBLISH_RETRIES = 2;
+
+    @Mock
+    private ChargesDeltaMessageHandler messageHandler;
+
+    @Mock
+    private DeadLetterPublishingRecoverer recoverer;
+
+    @Mock
+    private MessageLogSampler sampler;
+
+    private ChargesDeltaBatchConsumer consumer;
+
+    @BeforeEach
+    void setUp() {
+        consumer = new ChargesDeltaBatchConsumer(messageHandler, recoverer, new SequentialRecordExecutor(),
+                new DeltaSummaryReader(new ChargesDeltaJsonDecoder(false)), sampler,
+                new FixedBackOff(0L, PUBLISH_RETRIES), "charges-delta-consumer", false);
+    }
+
+    @Test
+    @DisplayName("Every record in a batch is handled once with its own offset")
+    void When_AllRecordsSucceed_Expect_NothingRecovered() {
+        List<Message<ChsDelta>> messages = List.of(createMessage(0), createMessage(1), createMessage(2));
+
+        consumer.receiveMainMessages(messages);
+
+        verify(messageHandler).handle(messages.get(0), 1, TOPIC, 0, 0L);
+        verify(messageHandler).handle(messages.get(1), 1, TOPIC, 0, 1L);
+        verify(messageHandler).handle(messages.get(2), 1, TOPIC, 0, 2L);
+        verifyNoInteractions(recoverer);
+    }
+
+    @Test
+    @DisplayName("A failed record is recovered on its own and the rest of the batch is processed")
+    void When_RecordFails_Expect_OnlyThatRecordRecovered() {
+        List<Message<ChsDelta>> messages = List.of(createMessage(0), createMessage(1), createMessage(2));
+        RetryableErrorException failure = new RetryableErrorException("charges-data-api unavailable");
+        doThrow(failure).when(messageHandler).handle(messages.get(1), 1, TOPIC, 0, 1L);
+
+        consumer.receiveMainMessages(messages);
+
+        verify(messageHandler, times(3)).handle(any(), any(), any(), any(), any());
+        ArgumentCaptor<ConsumerRecord<?, ?>> recordCaptor = ArgumentCaptor.forClass(ConsumerRecord.class);
+        ArgumentCaptor<Exception> exceptionCaptor = ArgumentCaptor.forClass(Exception.class);
+        verify(recoverer).accept(recordCaptor.capture(), exceptionCaptor.capture());
+        assertThat(recordCaptor.getValue().offset()).isEqualTo(1L);
+        assertThat(exceptionCaptor.getValue()).hasCause(failure);
+    }
+
+    @Test
+    @DisplayName("The earliest record that could not be published fails the batch after every record is handled")
+    void When_PublishFails_Expect_EarliestUnpublishedRecordReported() {
+        List<Message<ChsDelta>> messages = List.of(createMessage(0), createMessage(1), createMessage(2));
+        RetryableErrorException failure = new RetryableErrorException("charges-data-api unavailable");
+        doThrow(failure).when(messageHandler).handle(any(), any(), any(), any(), eq(1L));
+        doThrow(failure).when(messageHandler).handle(any(), any(), any(), any(), eq(2L));
+        doThrow(new KafkaException("broker unavailable")).when(recoverer).accept(any(), any());
+
+        assertThatThrownBy(() -> consumer.receiveMainMessages(messages))
+                .isInstanceOfSatisfying(BatchListenerFailedException.class, ex -> {
+                    assertThat(ex.getRecord().offset()).isEqualTo(1L);
+                    assertThat(ex).hasCause(failure);
+                });
+        verify(messageHandler, times(3)).handle(any(), any(), any(), any(), any());
+        // The first record is retried, after which the publisher is treated as unavailable
+        verify(recoverer, times((int) PUBLISH_RETRIES + 2)).accept(any(), any());
+    }
+
+    @Test
+    @DisplayName("A publish that fails is retried in place so the rest of the batch is not redelivered")
+    void When_PublishFailsOnce_Expect_RetriedInPlace() {
+        List<Message<ChsDelta>> messages = List.of(createMessage(0), createMessage(1), createMessage(2));
+        RetryableErrorException failure = new RetryableErrorException("charges-data-api unavailable");
+        doThrow(failure).when(messageHandler).handle(any(), any(), any(), any(), eq(1L));
+        doThrow(new KafkaException("broker unavailable")).doNothing()
+                .when(recoverer).accept(any(), any());
+
+        consumer.receiveMainMessages(messages);
+
+        verify(messageHandler, times(3)).handle(any(), any(), any(), any(), any());
+        verify(recoverer, times(2)).accept(any(), any());
+    }
+
+    @Test
+    @DisplayName("A record that could not be deserialised is recovered as non-retryable")
+    void When_PayloadNotDeserialised_Expect_NonRetryableRecovery() {
+        ConsumerRecord<String, Object> consumerRecord = new ConsumerRecord<>(TOPIC, 0, 0L, "key", null);
+        Message<?> message = MessageBuilder.withPayload(KafkaNull.INSTANCE)
+                .setHeader(KafkaHeaders.RAW_DATA, consumerRecord)
+                .build();
+
+        consumer.receiveMainMessages(List.of(castMessage(message)));
+
+        verifyNoInteractions(messageHandler);
+        ArgumentCaptor<Exception> exceptionCaptor = ArgumentCaptor.forClass(Exception.class);
+        verify(recoverer).accept(eq(consumerRecord), exceptionCaptor.capture());
+        assertThat(exceptionCaptor.getValue()).hasCauseInstanceOf(NonRetryableErrorException.class);
+    }
+
+    @Test
+    @DisplayName("Retry topic records are handled with the attempt number following the main topic attempt")
+    void When_RetryRecordReceived_Expect_AttemptIncludesMainTopic() {
+        Message<ChsDelta> message = createMessage(5);
+
+        consumer.receiveRetryMessages(message, 2, "charges-delta-charges-delta-consumer-retry", 0, 5L);
+
+        verify(messageHandler).handle(message, 3, "charges-delta-charges-delta-consumer-retry", 0, 5L);
+    }
+
+    private static Message<ChsDelta> createMessage(long offset) {
+        ChsDelta chsDelta = ChsDelta.newBuilder()
+                .setData("{}")
+                .setContextId("context_id")
+                .setAttempt(1)
+                .build();
+        return MessageBuilder.withPayload(chsDelta)
+                .setHeader(KafkaHeaders.RECEIVED_TOPIC, TOPIC)
+                .setHeader(KafkaHeaders.RECEIVED_PARTITION, 0)
+                .setHeader(KafkaHeaders.OFFSET, offset)
+                .setHeader(KafkaHeaders.RAW_DATA,
+                        new ConsumerRecord<>(TOPIC, 0, offset, "key", chsDelta))
+                .build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Message<ChsDelta> castMessage(Message<?> message) {
+        return (Message<ChsDelta>) message;
+    }
+}
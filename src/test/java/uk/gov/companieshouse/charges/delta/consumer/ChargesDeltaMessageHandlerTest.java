@@ -0,0 +1,119 @@
+package uk.gov.companieshouse.charges.delta.consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.retrytopic.RetryTopicHeaders;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
+import uk.gov.companieshouse.charges.delta.exception.RetryableErrorException;
+import uk.gov.companieshouse.charges.delta.processor.ChargesDeltaProcessor;
+import uk.gov.companieshouse.delta.ChsDelta;
+
+@ExtendWith(MockitoExtension.class)
+class ChargesDeltaMessageHandlerTest {
+
+    private static final String TOPIC = "charges-delta";
+    private static final String RETRY_TOPIC = "charges-delta-charges-delta-consumer-retry";
+    private static final long DEFER_DELAY = 10_000L;
+
+    @Mock
+    private ChargesDeltaProcessor deltaProcessor;
+
+    @Mock
+    private RetryBudget retryBudget;
+
+    @Mock
+    private KafkaTemplate<String, Object> kafkaTemplate;
+
+    @Captor
+    private ArgumentCaptor<ProducerRecord<String, Object>> recordCaptor;
+
+    private ChargesDeltaMessageHandler handler;
+
+    private final ChsDelta chsDelta = ChsDelta.newBuilder()
+            .setData("{}")
+            .setContextId("context_id")
+            .setAttempt(1)
+            .build();
+
+    @BeforeEach
+    void setUp() {
+        handler = new ChargesDeltaMessageHandler(deltaProcessor, retryBudget, kafkaTemplate, DEFER_DELAY);
+    }
+
+    @Test
+    @DisplayName("A first attempt is processed without taking from the retry budget")
+    void When_FirstAttempt_Expect_BudgetUntouched() {
+        Message<ChsDelta> message = MessageBuilder.withPayload(chsDelta).build();
+
+        handler.handle(message, null, TOPIC, 0, 0L);
+
+        verify(deltaProcessor).processDelta(message);
+        verifyNoInteractions(retryBudget, kafkaTemplate);
+    }
+
+    @Test
+    @DisplayName("A retry is processed while the retry budget allows it and its failure is rethrown")
+    void When_BudgetAvailable_Expect_RetryProcessed() {
+        Message<ChsDelta> message = MessageBuilder.withPayload(chsDelta).build();
+        RetryableErrorException failure = new RetryableErrorException("charges-data-api unavailable");
+        doThrow(failure).when(deltaProcessor).processDelta(message);
+        when(retryBudget.tryAcquire()).thenReturn(true);
+
+        assertThatThrownBy(() -> handler.handle(message, 2, RETRY_TOPIC, 0, 0L)).isSameAs(failure);
+        verifyNoInteractions(kafkaTemplate);
+    }
+
+    @Test
+    @DisplayName("A retry is deferred on its own partition once the retry budget is exhausted")
+    void When_BudgetExhausted_Expect_RetryDeferred() {
+        ConsumerRecord<String, Object> consumerRecord =
+                new ConsumerRecord<>(RETRY_TOPIC, 3, 7L, "key", chsDelta);
+        consumerRecord.headers().add(RetryTopicHeaders.DEFAULT_HEADER_ATTEMPTS,
+                ByteBuffer.allocate(Integer.BYTES).putInt(2).array());
+        consumerRecord.headers().add(RetryTopicHeaders.DEFAULT_HEADER_BACKOFF_TIMESTAMP,
+                BigInteger.ONE.toByteArray());
+        Message<ChsDelta> message = MessageBuilder.withPayload(chsDelta)
+                .setHeader(KafkaHeaders.RAW_DATA, consumerRecord)
+                .build();
+        when(retryBudget.tryAcquire()).thenReturn(false);
+        when(kafkaTemplate.send(recordCaptor.capture())).thenReturn(CompletableFuture.completedFuture(null));
+        long start = System.currentTimeMillis();
+
+        handler.handle(message, 2, RETRY_TOPIC, 3, 7L);
+
+        verifyNoInteractions(deltaProcessor);
+        ProducerRecord<String, Object> deferred = recordCaptor.getValue();
+        assertThat(deferred.topic()).isEqualTo(RETRY_TOPIC);
+        assertThat(deferred.partition()).isEqualTo(3);
+        assertThat(deferred.key()).isEqualTo("key");
+        assertThat(deferred.value()).isSameAs(chsDelta);
+        assertThat(deferred.headers().lastHeader(RetryTopicHeaders.DEFAULT_HEADER_ATTEMPTS).value())
+                .isEqualTo(ByteBuffer.allocate(Integer.BYTES).putInt(2).array());
+        assertThat(deferred.headers().headers(RetryTopicHeaders.DEFAULT_HEADER_BACKOFF_TIMESTAMP))
+                .hasSize(1);
+        assertThat(new BigInteger(deferred.headers()
+                .lastHeader(RetryTopicHeaders.DEFAULT_HEADER_BACKOFF_TIMESTAMP).value()).longValue())
+                .isGreaterThanOrEqualTo(start + DEFER_DELAY);
+    }
+}
@@ -0,0 +1,62 @@
+package uk.gov.companieshouse.charges.delta.consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.function.Function;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class DeltaCoalescerTest {
+
+    private static final DeltaSummary OLD_UPSERT =
+            new DeltaSummary("12345678", "1", "20230724093435661593", false);
+    private static final DeltaSummary NEW_UPSERT =
+            new DeltaSummary("12345678", "1", "20230724093435661594", false);
+    private static final DeltaSummary NEW_DELETE =
+            new DeltaSummary("12345678", "1", "20230725000000000000", true);
+    private static final DeltaSummary OTHER_CHARGE =
+            new DeltaSummary("12345678", "2", "20230724093435661593", false);
+
+    @Test
+    @DisplayName("Only the latest delta for a charge is kept, in batch order")
+    void When_SameChargeRepeated_Expect_LatestKept() {
+        List<DeltaSummary> result = DeltaCoalescer.coalesce(
+                List.of(NEW_UPSERT, OTHER_CHARGE, OLD_UPSERT), Function.identity());
+
+        assertThat(result).containsExactly(NEW_UPSERT, OTHER_CHARGE);
+    }
+
+    @Test
+    @DisplayName("A newer delete supersedes earlier upserts for the charge")
+    void When_NewerDelete_Expect_DeleteKept() {
+        List<DeltaSummary> result = DeltaCoalescer.coalesce(
+                List.of(OLD_UPSERT, NEW_DELETE, NEW_UPSERT), Function.identity());
+
+        assertThat(result).containsExactly(NEW_DELETE);
+    }
+
+    @Test
+    @DisplayName("The later record is kept when delta_at values are equal")
+    void When_SameDeltaAt_Expect_LaterKept() {
+        DeltaSummary resent = new DeltaSummary("12345678", "1", "20230724093435661593", false);
+
+        List<DeltaSummary> result = DeltaCoalescer.coalesce(
+                List.of(OLD_UPSERT, resent), Function.identity());
+
+        assertThat(result).hasSize(1);
+        assertThat(result.get(0)).isSameAs(resent);
+    }
+
+    @Test
+    @DisplayName("Records without a key or delta_at are never dropped")
+    void When_NoKeyOrDeltaAt_Expect_Kept() {
+        DeltaSummary unreadable = new DeltaSummary(null, null, null, false);
+        DeltaSummary noDeltaAt = new DeltaSummary("12345678", "1", null, false);
+
+        List<DeltaSummary> result = DeltaCoalescer.coalesce(
+                List.of(unreadable, NEW_UPSERT, noDeltaAt, unreadable, OLD_UPSERT), Function.identity());
+
+        assertThat(result).containsExactly(unreadable, NEW_UPSERT, noDeltaAt, unreadable);
+    }
+}
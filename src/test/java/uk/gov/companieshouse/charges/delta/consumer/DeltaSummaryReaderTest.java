@@ -0,0 +1,49 @@
+package uk.gov.companieshouse.charges.delta.consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import uk.gov.companieshouse.charges.delta.util.TestSupport;
+import uk.gov.companieshouse.charges.delta.serialization.ChargesDeltaJsonDecoder;
+import uk.gov.companieshouse.delta.ChsDelta;
+
+class DeltaSummaryReaderTest {
+
+    private final DeltaSummaryReader reader = new DeltaSummaryReader(new ChargesDeltaJsonDecoder(false));
+    private final TestSupport testSupport = new TestSupport();
+
+    @Test
+    @DisplayName("Reads the charge identifiers from a charges delta")
+    void When_ChargesDelta_Expect_ChargeIdentifiers() throws IOException {
+        ChsDelta payload = testSupport.createChsDeltaMessage("charges-delta-source-1.json", false)
+                .getPayload();
+
+        DeltaSummary summary = reader.read(payload);
+
+        assertThat(summary).isEqualTo(
+                new DeltaSummary("01099198", "3387778", "20211029142043360560", false));
+        assertThat(summary.getKey()).isEqualTo("01099198/3387778");
+    }
+
+    @Test
+    @DisplayName("Reads the charge identifiers from a charges delete delta")
+    void When_ChargesDeleteDelta_Expect_ChargeIdentifiers() throws IOException {
+        ChsDelta payload = testSupport.createChsDeltaMessage("charges-delete-delta-source-1.json", true)
+                .getPayload();
+
+        DeltaSummary summary = reader.read(payload);
+
+        assertThat(summary).isEqualTo(
+                new DeltaSummary("12345678", "3000606655", "20230724093435661593", true));
+    }
+
+    @Test
+    @DisplayName("A delta that cannot be read has no key")
+    void When_InvalidDelta_Expect_NoKey() {
+        ChsDelta payload = testSupport.createInvalidChsDeltaMessage(false).getPayload();
+
+        assertThat(reader.read(payload).getKey()).isNull();
+    }
+}
@@ -0,0 +1,123 @@
+package uk.gov.companieshouse.charges.delta.consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class KeyOrderedRecordExecutorTest {
+
+    private KeyOrderedRecordExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = new KeyOrderedRecordExecutor(4, false, 100, 50);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.destroy();
+    }
+
+    @Test
+    @DisplayName("Records sharing a key are grouped in batch order and null keys are kept apart")
+    void When_Grouped_Expect_BatchOrderPerKey() {
+        List<String> records = List.of("a1", "b1", "x", "a2", "x", "b2", "a3");
+        Function<String, String> key = rec -> rec.equals("x") ? null : rec.substring(0, 1);
+
+        List<List<String>> groups = KeyOrderedRecordExecutor.groupByKey(records, key);
+
+        assertThat(groups).containsExactly(
+                List.of("a1", "a2", "a3"), List.of("b1", "b2"), List.of("x"), List.of("x"));
+    }
+
+    @Test
+    @DisplayName("Every record is run and records for the same key are run in order")
+    void When_Executed_Expect_OrderPreservedPerKey() {
+        List<String> records = new ArrayList<>();
+        IntStream.range(0, 200).forEach(i -> records.add((i % 7) + ":" + i));
+        Map<String, List<Integer>> seen = new ConcurrentHashMap<>();
+
+        executor.execute(records, rec -> rec.split(":")[0], rec -> {
+            String[] parts = rec.split(":");
+            seen.computeIfAbsent(parts[0], k -> Collections.synchronizedList(new ArrayList<>()))
+                    .add(Integer.parseInt(parts[1]));
+        });
+
+        assertThat(seen).hasSize(7);
+        assertThat(seen.values().stream().mapToInt(List::size).sum()).isEqualTo(200);
+        seen.values().forEach(sequence -> assertThat(sequence).isSorted());
+    }
+
+    @Test
+    @DisplayName("Virtual threads run every record with no more groups in flight than the limit")
+    void When_VirtualThreads_Expect_InFlightLimited() {
+        KeyOrderedRecordExecutor virtualExecutor = new KeyOrderedRecordExecutor(1, true, 3, 50);
+        List<Integer> records = IntStream.range(0, 50).boxed().toList();
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        AtomicInteger completed = new AtomicInteger();
+
+        try {
+            virtualExecutor.execute(records, String::valueOf, rec -> {
+                assertThat(Thread.currentThread().isVirtual()).isTrue();
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                LockSupport.parkNanos(1_000_000L);
+                running.decrementAndGet();
+                completed.incrementAndGet();
+            });
+        } finally {
+            virtualExecutor.destroy();
+        }
+
+        assertThat(completed).hasValue(50);
+        assertThat(maxRunning.get()).isLessThanOrEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("With virtual threads an in-flight limit above the client pool size is rejected")
+    void When_InFlightLimitAboveClientPool_Expect_Rejected() {
+        assertThrows(IllegalStateException.class, () -> new KeyOrderedRecordExecutor(1, true, 51, 50));
+    }
+
+    @Test
+    @DisplayName("A group that cannot be submitted gives back its in-flight permit")
+    void When_SubmitRejected_Expect_PermitReleased() {
+        KeyOrderedRecordExecutor stoppedExecutor = new KeyOrderedRecordExecutor(1, false, 1, 50);
+        stoppedExecutor.destroy();
+        List<String> records = List.of("a");
+
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            assertThrows(RejectedExecutionException.class,
+                    () -> stoppedExecutor.execute(records, Function.identity(), rec -> { }));
+            assertThrows(RejectedExecutionException.class,
+                    () -> stoppedExecutor.execute(records, Function.identity(), rec -> { }));
+        });
+    }
+
+    @Test
+    @DisplayName("An exception thrown by an action is rethrown on the listener thread")
+    void When_ActionThrows_Expect_ExceptionRethrown() {
+        List<String> records = List.of("a", "b");
+
+        assertThrows(IllegalStateException.class, () -> executor.execute(records, Function.identity(),
+                rec -> {
+                    throw new IllegalStateException(rec);
+                }));
+    }
+}
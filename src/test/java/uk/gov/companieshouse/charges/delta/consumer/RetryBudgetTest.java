@@ -0,0 +1,55 @@
+package uk.gov.companieshouse.charges.delta.consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class RetryBudgetTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicLong nanoTime = new AtomicLong();
+
+    @Test
+    @DisplayName("Retries are refused once the bucket is empty and counted as deferred")
+    void When_CapacityUsed_Expect_RetryRefused() {
+        RetryBudget budget = new RetryBudget(true, 2, 1, meterRegistry, nanoTime::get);
+
+        assertThat(budget.tryAcquire()).isTrue();
+        assertThat(budget.tryAcquire()).isTrue();
+        assertThat(budget.tryAcquire()).isFalse();
+        assertThat(meterRegistry.counter("charges.delta.retry.budget.deferred").count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("The bucket refills at the configured rate up to its capacity")
+    void When_TimePasses_Expect_TokensRefilled() {
+        RetryBudget budget = new RetryBudget(true, 2, 2, meterRegistry, nanoTime::get);
+        budget.tryAcquire();
+        budget.tryAcquire();
+
+        nanoTime.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+        assertThat(budget.tryAcquire()).isTrue();
+        assertThat(budget.tryAcquire()).isFalse();
+
+        nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(60));
+        assertThat(budget.tryAcquire()).isTrue();
+        assertThat(budget.tryAcquire()).isTrue();
+        assertThat(budget.tryAcquire()).isFalse();
+    }
+
+    @Test
+    @DisplayName("A disabled budget always allows a retry")
+    void When_Disabled_Expect_RetryAllowed() {
+        RetryBudget budget = new RetryBudget(false, 0, 0, meterRegistry, nanoTime::get);
+
+        assertThat(budget.tryAcquire()).isTrue();
+        assertThat(meterRegistry.counter("charges.delta.retry.budget.deferred").count())
+                .isZero();
+    }
+}
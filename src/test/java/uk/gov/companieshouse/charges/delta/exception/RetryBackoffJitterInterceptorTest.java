@@ -0,0 +1,88 @@
+package uk.gov.companieshouse.charges.delta.exception;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigInteger;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.config.ConfigException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.retrytopic.RetryTopicHeaders;
+
+class RetryBackoffJitterInterceptorTest {
+
+    private static final String RETRY_TOPIC = "charges-delta-charges-delta-consumer-retry";
+    private static final String ERROR_TOPIC = "charges-delta-charges-delta-consumer-error";
+    private static final long DELAY = 10_000L;
+
+    private final RetryBackoffJitterInterceptor interceptor = new RetryBackoffJitterInterceptor();
+
+    @Test
+    @DisplayName("The backoff timestamp of a retry tier record is spread within the jitter")
+    void When_RetryTierRecord_Expect_BackoffJittered() {
+        interceptor.configure(Map.of(RetryBackoffJitterInterceptor.JITTER_CONFIG, "0.5",
+                RetryBackoffJitterInterceptor.RETRY_TOPIC_CONFIG, RETRY_TOPIC));
+        Set<Long> delays = new HashSet<>();
+
+        for (int i = 0; i < 20; i++) {
+            long start = System.currentTimeMillis();
+            ProducerRecord<String, Object> result = interceptor.onSend(createRecord(RETRY_TOPIC + "-1", start));
+            long end = System.currentTimeMillis();
+
+            assertThat(result.headers().headers(RetryTopicHeaders.DEFAULT_HEADER_BACKOFF_TIMESTAMP))
+                    .hasSize(1);
+            long backoffTimestamp = backoffTimestamp(result);
+            assertThat(backoffTimestamp).isBetween(start + DELAY / 2 - 1, end + DELAY * 3 / 2 + 1);
+            delays.add(backoffTimestamp - start);
+        }
+        assertThat(delays).hasSizeGreaterThan(1);
+    }
+
+    @Test
+    @DisplayName("Records bound for other topics are unchanged")
+    void When_ErrorTopicRecord_Expect_Unchanged() {
+        interceptor.configure(Map.of(RetryBackoffJitterInterceptor.JITTER_CONFIG, "0.5",
+                RetryBackoffJitterInterceptor.RETRY_TOPIC_CONFIG, RETRY_TOPIC));
+        long now = System.currentTimeMillis();
+
+        ProducerRecord<String, Object> result = interceptor.onSend(createRecord(ERROR_TOPIC, now));
+
+        assertThat(backoffTimestamp(result)).isEqualTo(now + DELAY);
+    }
+
+    @Test
+    @DisplayName("Records are unchanged when no jitter is configured")
+    void When_NoJitter_Expect_Unchanged() {
+        interceptor.configure(Map.of());
+        long now = System.currentTimeMillis();
+
+        ProducerRecord<String, Object> result = interceptor.onSend(createRecord(RETRY_TOPIC, now));
+
+        assertThat(backoffTimestamp(result)).isEqualTo(now + DELAY);
+    }
+
+    @Test
+    @DisplayName("A jitter that could make a retry due immediately is rejected")
+    void When_JitterNotBelowOne_Expect_Rejected() {
+        Map<String, Object> configs = Map.of(RetryBackoffJitterInterceptor.JITTER_CONFIG, "1",
+                RetryBackoffJitterInterceptor.RETRY_TOPIC_CONFIG, RETRY_TOPIC);
+
+        assertThatThrownBy(() -> interceptor.configure(configs)).isInstanceOf(ConfigException.class);
+    }
+
+    private static ProducerRecord<String, Object> createRecord(String topic, long now) {
+        ProducerRecord<String, Object> record = new ProducerRecord<>(topic, "key", "value");
+        record.headers().add(RetryTopicHeaders.DEFAULT_HEADER_BACKOFF_TIMESTAMP,
+                BigInteger.valueOf(now + DELAY).toByteArray());
+        return record;
+    }
+
+    private static long backoffTimestamp(ProducerRecord<String, Object> record) {
+        return new BigInteger(record.headers()
+                .lastHeader(RetryTopicHeaders.DEFAULT_HEADER_BACKOFF_TIMESTAMP).value()).longValue();
+    }
+}
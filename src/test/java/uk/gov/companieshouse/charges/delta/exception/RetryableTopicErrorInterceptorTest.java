@@ -0,0 +1,63 @@
+package uk.gov.companieshouse.charges.delta.exception;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.kafka.support.KafkaHeaders.EXCEPTION_CAUSE_FQCN;
+
+import java.nio.charset.StandardCharsets;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.listener.ListenerExecutionFailedException;
+
+class RetryableTopicErrorInterceptorTest {
+
+    private static final String ERROR_TOPIC = "charges-delta-charges-delta-consumer-error";
+    private static final String INVALID_TOPIC = "charges-delta-charges-delta-consumer-invalid";
+
+    private final RetryableTopicErrorInterceptor interceptor = new RetryableTopicErrorInterceptor();
+
+    @Test
+    @DisplayName("A non-retryable failure bound for the error topic is moved to the invalid topic")
+    void When_NonRetryableCategory_Expect_InvalidTopic() {
+        ProducerRecord<String, Object> record = new ProducerRecord<>(ERROR_TOPIC, "key", "value");
+        record.headers().add(ErrorCategory.headers(null, new ListenerExecutionFailedException(
+                "failed", new NonRetryableErrorException("invalid"))).lastHeader(ErrorCategory.HEADER));
+
+        ProducerRecord<String, Object> result = interceptor.onSend(record);
+
+        assertThat(result.topic()).isEqualTo(INVALID_TOPIC);
+        assertThat(result.key()).isEqualTo("key");
+        assertThat(result.value()).isEqualTo("value");
+    }
+
+    @Test
+    @DisplayName("A retryable failure stays on the error topic")
+    void When_RetryableCategory_Expect_ErrorTopic() {
+        ProducerRecord<String, Object> record = new ProducerRecord<>(ERROR_TOPIC, "key", "value");
+        record.headers().add(ErrorCategory.headers(null, new RetryableErrorException("unavailable"))
+                .lastHeader(ErrorCategory.HEADER));
+
+        assertThat(interceptor.onSend(record)).isSameAs(record);
+    }
+
+    @Test
+    @DisplayName("A record without a category is classified from the exception cause class name")
+    void When_NoCategory_Expect_CauseClassNameUsed() {
+        ProducerRecord<String, Object> record = new ProducerRecord<>(ERROR_TOPIC, "key", "value");
+        record.headers().add(EXCEPTION_CAUSE_FQCN,
+                NonRetryableErrorException.class.getName().getBytes(StandardCharsets.UTF_8));
+
+        assertThat(interceptor.onSend(record).topic()).isEqualTo(INVALID_TOPIC);
+    }
+
+    @Test
+    @DisplayName("A record bound for the retry topic is not redirected")
+    void When_RetryTopic_Expect_Unchanged() {
+        ProducerRecord<String, Object> record = new ProducerRecord<>(
+                "charges-delta-charges-delta-consumer-retry", "key", "value");
+        record.headers().add(ErrorCategory.headers(null, new NonRetryableErrorException("invalid"))
+                .lastHeader(ErrorCategory.HEADER));
+
+        assertThat(interceptor.onSend(record)).isSameAs(record);
+    }
+}
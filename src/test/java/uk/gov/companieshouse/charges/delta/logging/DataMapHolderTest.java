@@ -2,6 +2,7 @@ package uk.gov.companieshouse.charges.delta.logging;
 
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -43,4 +44,36 @@ class DataMapHolderTest {
         var logMap = DataMapHolder.getLogMap();
         assertTrue(logMap.containsKey("request_id"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void getLogMapReflectsContextWhenFirstRead() {
+        DataMapHolder.initialise("requestId");
+
+        var logMap = DataMapHolder.getLogMap();
+        DataMapHolder.get().companyNumber("01099198");
+
+        assertTrue(logMap.containsValue("01099198"));
+        assertEquals(DataMapHolder.get().build().getLogMap(), logMap);
+    }
+
+    @Test
+    void getRequestIdAfterClear() {
+        DataMapHolder.initialise("requestId");
+        DataMapHolder.clear();
+
+        assertEquals("uninitialised", DataMapHolder.getRequestId());
+        assertEquals("uninitialised", DataMapHolder.getLogMap().get("request_id"));
+    }
+
+    @Test
+    void getLogMapIsMutable() {
+        DataMapHolder.initialise("requestId");
+
+        var logMap = DataMapHolder.getLogMap();
+        logMap.put("status", "failed");
+
+        assertEquals("failed", logMap.get("status"));
+        assertEquals("requestId", logMap.remove("request_id"));
+        assertFalse(logMap.containsKey("request_id"));
+    }
+}
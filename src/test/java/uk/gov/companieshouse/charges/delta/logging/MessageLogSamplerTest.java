@@ -0,0 +1,52 @@
+package uk.gov.companieshouse.charges.delta.logging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class MessageLogSamplerTest {
+
+    private static final long HOUR = TimeUnit.HOURS.toMillis(1);
+
+    @Test
+    void everyMessageSampledAtRateOfOne() {
+        MessageLogSampler sampler = new MessageLogSampler(1, HOUR);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(sampler.sample()).isTrue();
+        }
+    }
+
+    @Test
+    void oneInEveryNMessagesSampled() {
+        MessageLogSampler sampler = new MessageLogSampler(3, HOUR);
+
+        assertThat(sampler.sample()).isTrue();
+        assertThat(sampler.sample()).isFalse();
+        assertThat(sampler.sample()).isFalse();
+        assertThat(sampler.sample()).isTrue();
+    }
+
+    @Test
+    void summaryCountsMessagesAndFailuresThenResets() {
+        MessageLogSampler sampler = new MessageLogSampler(100, HOUR);
+        sampler.record(TimeUnit.MILLISECONDS.toNanos(10), true);
+        sampler.record(TimeUnit.MILLISECONDS.toNanos(20), true);
+        sampler.record(TimeUnit.MILLISECONDS.toNanos(30), false);
+
+        String summary = sampler.takeSummary(System.nanoTime());
+
+        assertThat(summary).startsWith("Processed 3 deltas in the last 0 seconds, 1 failed;")
+                .contains("max 30");
+        assertThat(sampler.takeSummary(System.nanoTime())).isNull();
+    }
+
+    @Test
+    void noSummaryWhenLoggingEveryMessage() {
+        MessageLogSampler sampler = new MessageLogSampler(1, HOUR);
+        sampler.record(TimeUnit.MILLISECONDS.toNanos(10), true);
+
+        assertThat(sampler.takeSummary(System.nanoTime())).isNull();
+    }
+}
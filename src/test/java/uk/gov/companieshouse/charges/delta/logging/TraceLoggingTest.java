@@ -0,0 +1,24 @@
+package uk.gov.companieshouse.charges.delta.logging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class TraceLoggingTest {
+
+    @Test
+    void traceMessageNotRenderedWhenTraceDisabled() {
+        AtomicInteger rendered = new AtomicInteger();
+
+        TraceLogging.trace(() -> "rendered " + rendered.incrementAndGet());
+
+        assertThat(TraceLogging.isEnabled()).isFalse();
+        assertThat(rendered).hasValue(0);
+    }
+
+    @Test
+    void conditionDoesNotMatchWhenTraceDisabled() {
+        assertThat(new TraceEnabledCondition().matches(null, null)).isFalse();
+    }
+}
@@ -0,0 +1,87 @@
+package uk.gov.companieshouse.charges.delta.mapper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class CachingTextFormatterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private CachingTextFormatter cachingTextFormatter;
+    private TextFormatter textFormatter;
+
+    @BeforeEach
+    void beforeEach() {
+        meterRegistry = new SimpleMeterRegistry();
+        cachingTextFormatter = new CachingTextFormatter(100, meterRegistry);
+        textFormatter = new TextFormatter();
+    }
+
+    @Test
+    @DisplayName("Entity names differing only in case share a cache entry")
+    void testFormatAsEntityNameCaseInsensitiveHit() {
+        // when
+        String first = cachingTextFormatter.formatAsEntityName("lombard north central plc");
+        String second = cachingTextFormatter.formatAsEntityName("LOMBARD NORTH CENTRAL PLC");
+
+        // then
+        assertEquals(textFormatter.formatAsEntityName("lombard north central plc"), first);
+        assertEquals(first, second);
+        assertEquals(1.0, hits());
+        assertEquals(1.0, misses());
+    }
+
+    @Test
+    @DisplayName("Sentences and entity names with the same text are cached separately")
+    void testFormatKindsCachedSeparately() {
+        // when
+        String entityName = cachingTextFormatter.formatAsEntityName("THE BANK OF SCOTLAND");
+        String sentence = cachingTextFormatter.formatAsSentence("THE BANK OF SCOTLAND");
+
+        // then
+        assertEquals(textFormatter.formatAsEntityName("THE BANK OF SCOTLAND"), entityName);
+        assertEquals(textFormatter.formatAsSentence("THE BANK OF SCOTLAND"), sentence);
+        assertEquals(2.0, misses());
+    }
+
+    @Test
+    @DisplayName("Particulars are keyed on the exact text so escaped newlines are preserved")
+    void testFormatAsParticularsCaseSensitiveKey() {
+        // given
+        String particulars = "all the property\\nand undertaking";
+
+        // when
+        String first = cachingTextFormatter.formatAsParticulars(particulars);
+        String second = cachingTextFormatter.formatAsParticulars(particulars);
+
+        // then
+        assertEquals(textFormatter.formatAsParticulars(particulars), first);
+        assertEquals(first, second);
+        assertEquals(1.0, hits());
+    }
+
+    @Test
+    @DisplayName("Null and empty values are returned as given without being cached")
+    void testNullAndEmptyNotCached() {
+        // when
+        String nullResult = cachingTextFormatter.formatAsEntityName(null);
+        String emptyResult = cachingTextFormatter.formatAsParticulars("");
+
+        // then
+        assertNull(nullResult);
+        assertEquals("", emptyResult);
+        assertEquals(0.0, hits() + misses());
+    }
+
+    private double hits() {
+        return meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count();
+    }
+
+    private double misses() {
+        return meterRegistry.get("cache.gets").tag("result", "miss").functionCounter().count();
+    }
+}
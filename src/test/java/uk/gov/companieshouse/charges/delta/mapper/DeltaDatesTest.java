@@ -0,0 +1,66 @@
+package uk.gov.companieshouse.charges.delta.mapper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class DeltaDatesTest {
+
+    @ParameterizedTest(name = "Parse [{0}]")
+    @ValueSource(strings = {"20211029", "00010101", "99991231", "20200229", "20210228",
+            "20210229", "20210431", "20211231"})
+    @DisplayName("Dates are parsed as the yyyyMMdd formatter parses them")
+    void testParseDate(String date) {
+        assertEquals(LocalDate.parse(date, DateTimeFormatter.ofPattern("yyyyMMdd")),
+                DeltaDates.parseDate(date));
+    }
+
+    @ParameterizedTest(name = "Reject [{0}]")
+    @ValueSource(strings = {"", "2021102", "202110290", "20211329", "20211000", "20211032",
+            "00000101", "2021-10-29", " 20211029", "2021102a"})
+    @DisplayName("Dates the yyyyMMdd formatter rejects are rejected")
+    void testParseInvalidDate(String date) {
+        assertThrows(DateTimeParseException.class, () -> DeltaDates.parseDate(date));
+    }
+
+    @ParameterizedTest(name = "Parse [{0}]")
+    @ValueSource(strings = {"20211029142043360560", "20211029000000000000",
+            "20211231235959999999", "20210229120000000001", "20211029240000000000"})
+    @DisplayName("Timestamps are parsed as the yyyyMMddHHmmssSSSSSS formatter parses them")
+    void testParseDateTime(String dateTime) {
+        OffsetDateTime expected = ZonedDateTime.parse(dateTime,
+                DateTimeFormatter.ofPattern("yyyyMMddHHmmssSSSSSS").withZone(ZoneId.of("Z")))
+                .toOffsetDateTime();
+
+        assertEquals(expected, DeltaDates.parseDateTime(dateTime));
+    }
+
+    @ParameterizedTest(name = "Reject [{0}]")
+    @ValueSource(strings = {"2021102914204336056", "20211029246043360560", "20211029146043360560",
+            "20211029142060360560", "20211329142043360560", "2021102914204336056x"})
+    @DisplayName("Timestamps the yyyyMMddHHmmssSSSSSS formatter rejects are rejected")
+    void testParseInvalidDateTime(String dateTime) {
+        assertThrows(DateTimeParseException.class, () -> DeltaDates.parseDateTime(dateTime));
+    }
+
+    @Test
+    @DisplayName("Every day of a leap and a common year is parsed as the formatter parses it")
+    void testParseEveryDate() {
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyyMMdd");
+        for (LocalDate date = LocalDate.of(2023, 1, 1); date.getYear() < 2025;
+                date = date.plusDays(1)) {
+            String text = date.format(formatter);
+            assertEquals(LocalDate.parse(text, formatter), DeltaDates.parseDate(text));
+        }
+    }
+}
@@ -16,7 +16,6 @@ import uk.gov.companieshouse.api.charges.PersonsEntitledApi;
 import uk.gov.companieshouse.api.charges.SecuredDetailsApi;
 import uk.gov.companieshouse.api.delta.Charge;
 import uk.gov.companieshouse.logging.Logger;
-import java.lang.reflect.InvocationTargetException;
 import java.util.Collections;
 
 @ExtendWith(MockitoExtension.class)
@@ -50,8 +49,7 @@ class DescriptiveChargeApiMapperTest {
     private PersonsEntitledApi personsEntitledApi;
 
     @Test
-    void testChargeToChargeApiMapsFields() throws InvocationTargetException,
-            NoSuchMethodException, IllegalAccessException {
+    void testChargeToChargeApiMapsFields() {
         // given
         DescriptiveChargeApiMapper mapper = new DescriptiveChargeApiMapper(delegate, textFormatter);
         when(delegate.chargeToChargeApi(any(), any())).thenReturn(chargeApi);
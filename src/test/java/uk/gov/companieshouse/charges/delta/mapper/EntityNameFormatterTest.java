@@ -0,0 +1,94 @@
+package uk.gov.companieshouse.charges.delta.mapper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+class EntityNameFormatterTest {
+
+    private static final String[] FRAGMENTS = {"LTD", "L.T.D", "LTD.", "PLC", "P.L.C", "LLP",
+            "L.P", "LP", "C.I.C", "CIC", "CCC", "C.C.C", "CBC", "C.B.C", "PCCLIMITED", "UK", "GB",
+            "NI", "SE", "AND", "OF", "THE", "A", "AN", "O'BRIEN", "'S", "BANK", "LOMBARD", "(", ")",
+            ":", ";", ".", ",", "-", "/", "&", "'", "_", " ", "  ", "\t", "\n", "\r", "\r\n", "1",
+            "2A", "A2", "ETC.", "J.", "B.", "É", "é", "æ", "Æ", "ª",
+            " ", "×", "Ł", "ß"};
+
+    private static final int MIN_COVERAGE_PERCENT = 80;
+
+    private static final String ALPHABET = "ACDLPTIBNEGSOFHKaclpt.()':; \t\n\r\u000b\f_019-"
+            + "éÉ ª×\u0001";
+
+    @ParameterizedTest
+    @MethodSource("corpus")
+    @DisplayName("Single pass formatting matches the regular expression passes")
+    void testFormatMatchesRegularExpressions(List<String> corpus) {
+        int compared = 0;
+        for (String text : corpus) {
+            String formatted = EntityNameFormatter.format(text);
+            if (formatted != null) {
+                assertEquals(TextFormatter.recaseAsEntityName(text), formatted, () -> "[" + text + "]");
+                compared++;
+            }
+        }
+        assertCovered(compared, corpus);
+    }
+
+    @Test
+    @DisplayName("Lender names are formatted without the regular expressions")
+    void testLenderNamesSupported() {
+        assertEquals("Lombard North Central PLC", EntityNameFormatter.format("LOMBARD NORTH CENTRAL PLC"));
+        assertEquals("Société Générale", EntityNameFormatter.format("SOCIÉTÉ GÉNÉRALE"));
+        assertNotNull(EntityNameFormatter.format("THE ROYAL BANK OF SCOTLAND PLC (AS SECURITY TRUSTEE)"));
+    }
+
+    @Test
+    @DisplayName("Text outside Latin-1 falls back to the regular expressions")
+    void testUnsupportedTextFallsBack() {
+        String text = "BANK ŁÓDŹ SPÓŁKA AKCYJNA";
+
+        assertNull(EntityNameFormatter.format(text));
+        assertEquals(TextFormatter.recaseAsEntityName(text), new TextFormatter().formatAsEntityName(text));
+    }
+
+    // Unsupported text is skipped, so check that most of the corpus was still compared: about
+    // 86% of the fragments and all of the characters corpus are supported
+    private static void assertCovered(int compared, List<String> corpus) {
+        assertTrue(compared >= corpus.size() * MIN_COVERAGE_PERCENT / 100,
+                () -> compared + " of " + corpus.size() + " texts compared");
+    }
+
+    private static Stream<List<String>> corpus() {
+        Random random = new Random(20211029L);
+        List<String> fragments = new ArrayList<>();
+        List<String> characters = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            StringBuilder text = new StringBuilder();
+            int words = 1 + random.nextInt(8);
+            for (int j = 0; j < words; j++) {
+                String fragment = FRAGMENTS[random.nextInt(FRAGMENTS.length)];
+                text.append(random.nextBoolean() ? fragment : fragment.toLowerCase());
+                if (random.nextInt(3) > 0) {
+                    text.append(' ');
+                }
+            }
+            fragments.add(text.toString());
+
+            char[] chars = new char[1 + random.nextInt(14)];
+            for (int j = 0; j < chars.length; j++) {
+                chars[j] = ALPHABET.charAt(random.nextInt(ALPHABET.length()));
+            }
+            characters.add(new String(chars));
+        }
+        return Stream.of(fragments, characters);
+    }
+}
@@ -0,0 +1,82 @@
+package uk.gov.companieshouse.charges.delta.mapper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static uk.gov.companieshouse.charges.delta.mapper.NoticeTypeMapperUtils.NO_PATTERN;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+class NoticeTypeTransDescTest {
+
+    @ParameterizedTest(name = "Map [{0}] [{1}] to [{2}]")
+    @MethodSource("noticeTypesFileFilingTypes")
+    @DisplayName("Filing types are resolved from the notice types file")
+    void testGetFilingTypeFromNoticeTypesFile(String noticeType, String transDesc, String expected) {
+        // when
+        String actual = NoticeTypeMapperUtils.map.get(noticeType).getFilingType(transDesc);
+
+        // then
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    @DisplayName("The first pattern in file order wins when several match")
+    void testGetFilingTypeFirstMatchWins() {
+        // given
+        Map<String, String> patterns = new LinkedHashMap<>();
+        for (int i = 0; i < 20; i++) {
+            patterns.put("^(?i:CHARGE.*" + ".?".repeat(i) + ")$", "filing-type-" + i);
+        }
+        patterns.put(NO_PATTERN, "default-filing-type");
+        NoticeTypeTransDesc noticeTypeTransDesc = new NoticeTypeTransDesc("MR01", patterns);
+
+        // when
+        String actual = noticeTypeTransDesc.getFilingType("  charge code 123  ");
+
+        // then
+        assertEquals("filing-type-0", actual);
+    }
+
+    @Test
+    @DisplayName("Later changes to the given patterns do not affect the notice type")
+    void testPatternsCannotBeModified() {
+        // given
+        Map<String, String> patterns = new LinkedHashMap<>();
+        patterns.put("^(?i:CHARGE.*)$", "first");
+        NoticeTypeTransDesc noticeTypeTransDesc = new NoticeTypeTransDesc("MR01", patterns);
+
+        // when
+        patterns.put("^(?i:CHARGE.*)$", "replaced");
+
+        // then
+        assertEquals("first", noticeTypeTransDesc.getFilingType("CHARGE CODE 123"));
+        Map<String, String> filingTypes = noticeTypeTransDesc.getFilingTypeAndTransDescPattern();
+        assertThrows(UnsupportedOperationException.class, () -> filingTypes.put(NO_PATTERN, "other"));
+    }
+
+    private static Stream<Arguments> noticeTypesFileFilingTypes() {
+        return Stream.of(
+                Arguments.of("MR01", "REGISTRATION OF A CHARGE/CO CHARLES/EXTEND / CHARGE CODE 081242070049",
+                        "create-charge-with-deed-with-charles-court-order"),
+                Arguments.of("MR01", "REGISTRATION OF A CHARGE/CO EXTEND / CHARGE CODE 081242070049",
+                        "create-charge-with-deed-with-court-order"),
+                Arguments.of("MR01", "REGISTRATION OF A CHARGE / CHARGE CODE 081242070049",
+                        "create-charge-with-deed"),
+                Arguments.of("MR01", null, "create-charge-with-deed"),
+                Arguments.of("MR01", "   ", "create-charge-with-deed"),
+                Arguments.of("MR05",
+                        " statement of release / cease from charge / part both / charge code 081242070049 ",
+                        "charge-part-both"),
+                Arguments.of("MR05", "STATEMENT OF RELEASE / CEASE FROM CHARGE", "charge-release-cease"),
+                Arguments.of("MR06", "ANYTHING", "trustee-acting"),
+                Arguments.of("MG01", null, "create-charge-pre-april-2013")
+        );
+    }
+}
@@ -0,0 +1,57 @@
+package uk.gov.companieshouse.charges.delta.mapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import uk.gov.companieshouse.api.charges.ParticularsApi;
+
+class ParticularsApiFieldsTest {
+
+    @Test
+    @DisplayName("There is a getter for every field ParticularsApi declares")
+    void When_SdkFieldsCompared_Expect_GetterForEachField() {
+        assertThat(ParticularsApiFields.GETTERS.keySet())
+                .containsExactlyInAnyOrderElementsOf(instanceFields().map(Field::getName).toList());
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("instanceFields")
+    @DisplayName("Setting any single field makes the particulars non-empty")
+    void When_SingleFieldSet_Expect_AnyNotNull(Field field) throws IllegalAccessException {
+        ParticularsApi particularsApi = new ParticularsApi();
+        field.setAccessible(true);
+        field.set(particularsApi, sampleValue(field.getType()));
+
+        assertThat(ParticularsApiFields.isAnyNotNull(particularsApi)).isTrue();
+        assertThat(ParticularsApiFields.GETTERS.get(field.getName()).apply(particularsApi))
+                .isEqualTo(field.get(particularsApi));
+    }
+
+    @Test
+    @DisplayName("Empty particulars have no field set")
+    void When_NoFieldSet_Expect_AllNull() {
+        assertThat(ParticularsApiFields.isAnyNotNull(new ParticularsApi())).isFalse();
+    }
+
+    private static Stream<Field> instanceFields() {
+        return Arrays.stream(ParticularsApi.class.getDeclaredFields())
+                .filter(field -> !field.isSynthetic() && !Modifier.isStatic(field.getModifiers()));
+    }
+
+    private static Object sampleValue(Class<?> type) {
+        if (type.isEnum()) {
+            return type.getEnumConstants()[0];
+        }
+        if (type == Boolean.class) {
+            return Boolean.TRUE;
+        }
+        return "value";
+    }
+}
@@ -0,0 +1,109 @@
+package uk.gov.companieshouse.charges.delta.mapper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+class SentenceFormatterTest {
+
+    private static final String[] FRAGMENTS = {"i", "I.", "i)", "(i", "[i.", "i?", "ii", "a", "an",
+            "the", "sentence", "ETC.", "etc", "pp.", "ph.d.", "phd.", "d.r.", "a.b.", "b.sc.", "mr.",
+            "p/office", "/", "a/", "(", "[", ")", "]", ".", "..", "!", "?", ",", "'", "\"", "-", "_",
+            "\\n", "\\n\\n", "\\nn", "\\", "n", " ", "  ", "\t", "\n", "\r", "\r\n", "\f", "\u000b",
+            "\u00a0", "\u2003", "4life", "1", "2.2i", "£220,000.00", "llp", "l.t.d", "plc", "uk",
+            "æthelred", "é", "É.", "ª", "’", "“quoted”", "€", "–", "ß", "Ł"};
+
+    private static final int MIN_COVERAGE_PERCENT = 80;
+
+    private static final String ALPHABET = "aBiIdErLpT.!?()[]/\\nN \t\n\r\u000b\f_019-,'"
+            + "\u00a0éÉ×’\u2003\u0001";
+
+    @ParameterizedTest
+    @MethodSource("corpus")
+    @DisplayName("Single pass sentence formatting matches the regular expressions")
+    void testFormatAsSentenceMatchesRegularExpressions(List<String> corpus) {
+        int compared = 0;
+        for (String text : corpus) {
+            String formatted = SentenceFormatter.formatAsSentence(text);
+            if (formatted != null) {
+                assertEquals(TextFormatter.recaseAsSentence(text), formatted, () -> "[" + text + "]");
+                compared++;
+            }
+        }
+        assertCovered(compared, corpus);
+    }
+
+    @ParameterizedTest
+    @MethodSource("corpus")
+    @DisplayName("Single pass particulars formatting matches the regular expressions")
+    void testFormatAsParticularsMatchesRegularExpressions(List<String> corpus) {
+        int compared = 0;
+        for (String text : corpus) {
+            String formatted = SentenceFormatter.formatAsParticulars(text);
+            if (formatted != null) {
+                assertEquals(TextFormatter.recaseAsParticulars(text), formatted, () -> "[" + text + "]");
+                compared++;
+            }
+        }
+        assertCovered(compared, corpus);
+    }
+
+    @Test
+    @DisplayName("Particulars longer than the retained buffer are formatted")
+    void testLongParticulars() {
+        String text = "THE FREEHOLD PROPERTY KNOWN AS 1 HIGH STREET\\n".repeat(2_000);
+
+        assertEquals(TextFormatter.recaseAsParticulars(text), SentenceFormatter.formatAsParticulars(text));
+    }
+
+    @Test
+    @DisplayName("Text with letters outside Latin-1 falls back to the regular expressions")
+    void testUnsupportedTextFallsBack() {
+        String text = "ALL MONIES DUE TO BANK POLSKA KASA OPIEKI SPÓŁKA AKCYJNA";
+
+        assertNull(SentenceFormatter.formatAsSentence(text));
+        assertNull(SentenceFormatter.formatAsParticulars(text));
+        assertEquals(TextFormatter.recaseAsParticulars(text), new TextFormatter().formatAsParticulars(text));
+    }
+
+    // Unsupported text is skipped, so check that most of the corpus was still compared: about
+    // 88% of the fragments and all of the characters corpus are supported
+    private static void assertCovered(int compared, List<String> corpus) {
+        assertTrue(compared >= corpus.size() * MIN_COVERAGE_PERCENT / 100,
+                () -> compared + " of " + corpus.size() + " texts compared");
+    }
+
+    private static Stream<List<String>> corpus() {
+        Random random = new Random(20211029L);
+        List<String> fragments = new ArrayList<>();
+        List<String> characters = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            StringBuilder text = new StringBuilder();
+            int words = 1 + random.nextInt(10);
+            for (int j = 0; j < words; j++) {
+                String fragment = FRAGMENTS[random.nextInt(FRAGMENTS.length)];
+                text.append(random.nextBoolean() ? fragment : fragment.toUpperCase());
+                if (random.nextInt(3) > 0) {
+                    text.append(' ');
+                }
+            }
+            fragments.add(text.toString());
+
+            char[] chars = new char[1 + random.nextInt(16)];
+            for (int j = 0; j < chars.length; j++) {
+                chars[j] = ALPHABET.charAt(random.nextInt(ALPHABET.length()));
+            }
+            characters.add(new String(chars));
+        }
+        return Stream.of(fragments, characters);
+    }
+}
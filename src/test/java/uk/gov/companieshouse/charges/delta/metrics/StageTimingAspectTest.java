@@ -0,0 +1,102 @@
+package uk.gov.companieshouse.charges.delta.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+import com.google.api.client.http.HttpHeaders;
+import com.google.api.client.http.HttpResponseException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import uk.gov.companieshouse.api.error.ApiErrorResponseException;
+import uk.gov.companieshouse.api.model.ApiResponse;
+import uk.gov.companieshouse.charges.delta.exception.RetryableErrorException;
+import uk.gov.companieshouse.charges.delta.processor.EncoderUtil;
+import uk.gov.companieshouse.charges.delta.service.ApiClientService;
+
+@ExtendWith(MockitoExtension.class)
+class StageTimingAspectTest {
+
+    @Mock
+    private ApiClientService apiClientService;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private StageTimingAspect aspect;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        aspect = new StageTimingAspect(meterRegistry);
+    }
+
+    @Test
+    @DisplayName("A successful stage is timed under its method name")
+    void When_StageSucceeds_Expect_SuccessTimed() {
+        EncoderUtil encoderUtil = proxy(new EncoderUtil("charge_id_salt", "trans_id_salt"));
+
+        encoderUtil.encodeWithSha1("3000117455");
+        encoderUtil.encodeWithSha1("3101283055");
+
+        assertThat(count("encodeWithSha1", StageTimingAspect.SUCCESS)).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("A charges-data-api call is timed with the HTTP status of the response")
+    void When_ApiCallReturns_Expect_ResponseStatusTimed() {
+        when(apiClientService.deleteCharge("01099198", "charge_id", "20230101000000000000"))
+                .thenReturn(new ApiResponse<>(200, null));
+
+        proxy(apiClientService).deleteCharge("01099198", "charge_id", "20230101000000000000");
+
+        assertThat(count("deleteCharge", "200")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("A failed charges-data-api call is timed with the HTTP status of the error response")
+    void When_ApiCallFails_Expect_ErrorStatusTimed() {
+        ApiErrorResponseException cause = new ApiErrorResponseException(
+                new HttpResponseException.Builder(503, "Service Unavailable", new HttpHeaders()));
+        when(apiClientService.putCharge("01099198", "charge_id", null))
+                .thenThrow(new RetryableErrorException("Call to API failed", cause));
+
+        ApiClientService proxy = proxy(apiClientService);
+        assertThrows(RetryableErrorException.class,
+                () -> proxy.putCharge("01099198", "charge_id", null));
+
+        assertThat(count("putCharge", "503")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("A charges-data-api call that fails without a response is timed as a failure")
+    void When_ApiCallFailsWithoutResponse_Expect_FailureTimed() {
+        when(apiClientService.putCharge("01099198", "charge_id", null))
+                .thenThrow(new RetryableErrorException("Invalid URI"));
+
+        ApiClientService proxy = proxy(apiClientService);
+        assertThrows(RetryableErrorException.class,
+                () -> proxy.putCharge("01099198", "charge_id", null));
+
+        assertThat(count("putCharge", StageTimingAspect.FAILURE)).isEqualTo(1);
+    }
+
+    private <T> T proxy(T target) {
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(target);
+        proxyFactory.addAspect(aspect);
+        return proxyFactory.getProxy();
+    }
+
+    private long count(String operation, String status) {
+        return meterRegistry.get(StageTimingAspect.METRIC_NAME)
+                .tag(StageTimingAspect.OPERATION, operation)
+                .tag(StageTimingAspect.STATUS, status)
+                .timer()
+                .count();
+    }
+}
@@ -3,13 +3,20 @@ package uk.gov.companieshouse.charges.delta.processor;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.io.IOException;
+import java.time.OffsetDateTime;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Stream;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -24,11 +31,16 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageHeaders;
+import uk.gov.companieshouse.api.charges.InternalChargeApi;
 import uk.gov.companieshouse.api.delta.Charge;
 import uk.gov.companieshouse.api.model.ApiResponse;
 import uk.gov.companieshouse.charges.delta.exception.NonRetryableErrorException;
 import uk.gov.companieshouse.charges.delta.exception.RetryableErrorException;
+import uk.gov.companieshouse.charges.delta.serialization.ChargesDeltaJsonDecoder;
 import uk.gov.companieshouse.charges.delta.service.ApiClientService;
+import uk.gov.companieshouse.charges.delta.store.CaffeineDeltaAtStore;
+import uk.gov.companieshouse.charges.delta.store.ContentHashStore;
+import uk.gov.companieshouse.charges.delta.store.DeltaAtStore;
 import uk.gov.companieshouse.charges.delta.transformer.ChargesApiTransformer;
 import uk.gov.companieshouse.charges.delta.util.TestSupport;
 import uk.gov.companieshouse.delta.ChsDelta;
@@ -49,10 +61,20 @@ class ChargesDeltaProcessorTest {
 
     private TestSupport testSupport;
 
+    private DeltaAtStore deltaAtStore;
+
+    private ContentHashStore contentHashStore;
+
+    private SimpleMeterRegistry meterRegistry;
+
     @BeforeEach
     void setUp() {
         EncoderUtil encoderUtil = new EncoderUtil("some_salt", "transId_salt");
-        deltaProcessor = new ChargesDeltaProcessor(transformer, apiClientService, encoderUtil);
+        deltaAtStore = new CaffeineDeltaAtStore(100, Optional.empty());
+        meterRegistry = new SimpleMeterRegistry();
+        contentHashStore = new ContentHashStore(true, true, true, 100, meterRegistry);
+        deltaProcessor = new ChargesDeltaProcessor(transformer, apiClientService, encoderUtil, deltaAtStore,
+                contentHashStore, new ChargesDeltaJsonDecoder(false), meterRegistry);
         testSupport = new TestSupport();
     }
 
@@ -61,11 +83,11 @@ class ChargesDeltaProcessorTest {
     void When_ValidChsDeltaMessage_Expect_ValidChargesDelta() throws IOException {
         Message<ChsDelta> testChsDeltaMessage = testSupport.createChsDeltaMessage("charges-delta-source-1.json", false);
         ApiResponse<Void> response = new ApiResponse<>(HttpStatus.OK.value(), null, null);
-        when(transformer.transform(any(Charge.class), any(MessageHeaders.class))).thenReturn(testSupport.mockInternalChargeApi());
+        when(transformer.transform(any(Charge.class), anyString(), any(MessageHeaders.class))).thenReturn(testSupport.mockInternalChargeApi());
         doReturn(response).when(apiClientService).putCharge(any(), any(), any());
 
         deltaProcessor.processDelta(testChsDeltaMessage);
-        verify(transformer).transform(any(Charge.class), any(MessageHeaders.class));
+        verify(transformer).transform(any(Charge.class), anyString(), any(MessageHeaders.class));
     }
 
     @Test
@@ -81,17 +103,99 @@ class ChargesDeltaProcessorTest {
     void When_ValidChsDeltaMessage_Invoke_Data_Api_And_Get_Response() throws IOException {
         Message<ChsDelta> testChsDeltaMessage = testSupport.createChsDeltaMessage("charges-delta-source-1.json", false);
         final ApiResponse<Void> response = new ApiResponse<>(HttpStatus.OK.value(), null, null);
-        when(transformer.transform(any(Charge.class), any(MessageHeaders.class))).thenReturn(testSupport.mockInternalChargeApi());
+        when(transformer.transform(any(Charge.class), anyString(), any(MessageHeaders.class))).thenReturn(testSupport.mockInternalChargeApi());
         doReturn(response).when(apiClientService).putCharge("01099198",
                 "6DrQgDD109T7kBnVwtx5HrEX9B0", testSupport.mockInternalChargeApi());
 
         deltaProcessor.processDelta(testChsDeltaMessage);
-        verify(transformer).transform(any(Charge.class), any(MessageHeaders.class));
+        verify(transformer).transform(any(Charge.class), eq("6DrQgDD109T7kBnVwtx5HrEX9B0"),
+                any(MessageHeaders.class));
         verify(apiClientService).putCharge( "01099198",
                 "6DrQgDD109T7kBnVwtx5HrEX9B0", testSupport.mockInternalChargeApi());
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK.value());
     }
 
+    @Test
+    @DisplayName("A delta older than the last applied delta for the charge is skipped before transforming")
+    void When_StaleDelta_Expect_NoTransformOrApiCall() throws IOException {
+        Message<ChsDelta> testChsDeltaMessage = testSupport.createChsDeltaMessage("charges-delta-source-1.json", false);
+        deltaAtStore.applied("6DrQgDD109T7kBnVwtx5HrEX9B0", "20211029142043360561");
+
+        deltaProcessor.processDelta(testChsDeltaMessage);
+
+        verifyNoInteractions(transformer);
+        verifyNoInteractions(apiClientService);
+    }
+
+    @Test
+    @DisplayName("A successfully applied delta is recorded and a failed one is not")
+    void When_PutSucceeds_Expect_DeltaAtRecorded() throws IOException {
+        Message<ChsDelta> testChsDeltaMessage = testSupport.createChsDeltaMessage("charges-delta-source-1.json", false);
+        when(transformer.transform(any(Charge.class), anyString(), any(MessageHeaders.class))).thenReturn(testSupport.mockInternalChargeApi());
+        doReturn(new ApiResponse<>(HttpStatus.INTERNAL_SERVER_ERROR.value(), null, null))
+                .doReturn(new ApiResponse<>(HttpStatus.OK.value(), null, null))
+                .when(apiClientService).putCharge(any(), any(), any());
+
+        assertThrows(RetryableErrorException.class, () -> deltaProcessor.processDelta(testChsDeltaMessage));
+        assertThat(deltaAtStore.isStale("6DrQgDD109T7kBnVwtx5HrEX9B0", "20211029142043360559")).isFalse();
+
+        deltaProcessor.processDelta(testChsDeltaMessage);
+        assertThat(deltaAtStore.isStale("6DrQgDD109T7kBnVwtx5HrEX9B0", "20211029142043360559")).isTrue();
+    }
+
+    @Test
+    @DisplayName("A delta that maps to the charge last sent is not sent again until the charge is forgotten")
+    void When_ChargeUnchanged_Expect_PutSkipped() throws IOException {
+        Message<ChsDelta> testChsDeltaMessage = testSupport.createChsDeltaMessage("charges-delta-source-1.json", false);
+        when(transformer.transform(any(Charge.class), anyString(), any(MessageHeaders.class)))
+                .thenAnswer(invocation -> testSupport.mockInternalChargeApi());
+        doReturn(new ApiResponse<>(HttpStatus.OK.value(), null, null))
+                .when(apiClientService).putCharge(any(), any(), any());
+
+        deltaProcessor.processDelta(testChsDeltaMessage);
+        deltaProcessor.processDelta(testChsDeltaMessage);
+
+        verify(apiClientService, times(1)).putCharge(any(), any(), any());
+        assertThat(meterRegistry.get("charges.delta.put.skipped.unchanged").counter().count()).isEqualTo(1.0);
+
+        contentHashStore.invalidate("6DrQgDD109T7kBnVwtx5HrEX9B0");
+        deltaProcessor.processDelta(testChsDeltaMessage);
+
+        verify(apiClientService, times(2)).putCharge(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("The age of a delta is recorded once it has been successfully PUT")
+    void When_PutSucceeds_Expect_DeltaAgeRecorded() throws IOException {
+        Message<ChsDelta> testChsDeltaMessage = testSupport.createChsDeltaMessage("charges-delta-source-1.json", false);
+        InternalChargeApi internalChargeApi = testSupport.mockInternalChargeApi();
+        internalChargeApi.getInternalData().setDeltaAt(OffsetDateTime.now().minusMinutes(5));
+        when(transformer.transform(any(Charge.class), anyString(), any(MessageHeaders.class))).thenReturn(internalChargeApi);
+        doReturn(new ApiResponse<>(HttpStatus.INTERNAL_SERVER_ERROR.value(), null, null))
+                .doReturn(new ApiResponse<>(HttpStatus.OK.value(), null, null))
+                .when(apiClientService).putCharge(any(), any(), any());
+
+        assertThrows(RetryableErrorException.class, () -> deltaProcessor.processDelta(testChsDeltaMessage));
+        assertThat(meterRegistry.get("charges.delta.age").timer().count()).isZero();
+
+        deltaProcessor.processDelta(testChsDeltaMessage);
+        Timer deltaAge = meterRegistry.get("charges.delta.age").timer();
+        assertThat(deltaAge.count()).isEqualTo(1);
+        assertThat(deltaAge.totalTime(TimeUnit.MINUTES)).isGreaterThanOrEqualTo(5.0);
+    }
+
+    @Test
+    @DisplayName("A delete older than the last applied delta for the charge is skipped")
+    void When_StaleDelete_Expect_NoApiCall() throws IOException {
+        Message<ChsDelta> deleteMessage = testSupport.createChsDeltaMessage(
+                "charges-delete-delta-source-1.json", true);
+        deltaAtStore.applied(CHARGE_ID, "20230724093435661594");
+
+        deltaProcessor.processDelete(deleteMessage);
+
+        verifyNoInteractions(apiClientService);
+    }
+
     @ParameterizedTest
     @MethodSource("provideExceptionParameters")
     @DisplayName("When calling PUT charge and an error occurs then throw the appropriate exception based on the error type")
@@ -100,7 +204,7 @@ class ChargesDeltaProcessorTest {
         Message<ChsDelta> chsDeltaMessage = testSupport.createChsDeltaMessage("charges-delta-source-1.json", false);
         final ApiResponse<Void> response = new ApiResponse<>(httpStatus.value(), null, null);
 
-        when(transformer.transform(any(), any())).thenReturn(testSupport.mockInternalChargeApi());
+        when(transformer.transform(any(), any(), any())).thenReturn(testSupport.mockInternalChargeApi());
         doReturn(response).when(apiClientService).putCharge(any(), any(), any());
 
         assertThrows(exception, () -> deltaProcessor.processDelta(chsDeltaMessage));
@@ -1,5 +1,10 @@
 package uk.gov.companieshouse.charges.delta.processor;
 
+import org.apache.commons.codec.DecoderException;
+import org.apache.commons.codec.binary.Base64;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.lang3.StringUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -68,4 +73,15 @@ class EncoderUtilTest {
 
     }
 
+    @Test
+    void encodeWithSha1MatchesHexRoundTrip() throws DecoderException {
+        for (String plain : new String[] {"3000117455", " 3101283055 ", "ŁÓDŹ", "", null}) {
+            String hex = DigestUtils.sha1Hex(StringUtils.trim(plain) + chargeIdSalt);
+            String expectedValue = Base64.encodeBase64URLSafeString(Hex.decodeHex(hex));
+            assertThat(encoderUtil.encodeWithSha1(plain)).isEqualTo(expectedValue);
+            // The thread-local digest is reset after each use
+            assertThat(encoderUtil.encodeWithSha1(plain)).isEqualTo(expectedValue);
+        }
+    }
+
 }
\ No newline at end of file
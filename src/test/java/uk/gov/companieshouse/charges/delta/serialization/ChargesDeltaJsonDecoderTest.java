@@ -0,0 +1,36 @@
+package uk.gov.companieshouse.charges.delta.serialization;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import uk.gov.companieshouse.api.delta.ChargesDelta;
+import uk.gov.companieshouse.charges.delta.util.TestSupport;
+
+class ChargesDeltaJsonDecoderTest {
+
+    private final TestSupport testSupport = new TestSupport();
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    @DisplayName("Decoding with the shared reader matches a plain ObjectMapper, with or without Blackbird")
+    void When_DeltaDecoded_Expect_SameAsObjectMapper(boolean blackbirdEnabled) throws IOException {
+        String json = testSupport.loadTestdataFile("charges-delta-source-20.json");
+        ChargesDeltaJsonDecoder decoder = new ChargesDeltaJsonDecoder(blackbirdEnabled);
+
+        ChargesDelta decoded = decoder.decode(json, ChargesDelta.class);
+
+        assertThat(decoded).isEqualTo(testSupport.createChargesDelta("charges-delta-source-20.json"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    @DisplayName("The same reader is returned for a type on every call")
+    void When_ReaderRequestedTwice_Expect_SameReader(boolean blackbirdEnabled) {
+        ChargesDeltaJsonDecoder decoder = new ChargesDeltaJsonDecoder(blackbirdEnabled);
+
+        assertThat(decoder.readerFor(ChargesDelta.class)).isSameAs(decoder.readerFor(ChargesDelta.class));
+    }
+}
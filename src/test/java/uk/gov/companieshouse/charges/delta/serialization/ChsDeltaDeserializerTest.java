@@ -39,6 +39,17 @@ class ChsDeltaDeserializerTest {
         assertThrows(NonRetryableErrorException.class, () -> deserializer.deserialize("", data));
     }
 
+    @Test
+    void When_deserializeCalledRepeatedly_Expect_EachRecordDecodedIndependently() {
+        ChsDelta longer = new ChsDelta("{\"key\": \"a much longer value\"}", 1, "context_id_1", false);
+        ChsDelta shorter = new ChsDelta("{}", 2, "context_id_2", true);
+
+        assertThat(deserializer.deserialize("", encodedData(longer))).isEqualTo(longer);
+        assertThrows(NonRetryableErrorException.class,
+                () -> deserializer.deserialize("", "Invalid message".getBytes()));
+        assertThat(deserializer.deserialize("", encodedData(shorter))).isEqualTo(shorter);
+    }
+
     private byte[] encodedData(ChsDelta chsDelta) {
         ChsDeltaSerializer serializer = new ChsDeltaSerializer();
         return serializer.serialize("", chsDelta);
@@ -8,16 +8,17 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
 import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Value;
@@ -75,12 +76,17 @@ class ApiClientServiceImplTest {
     @Mock
     HttpClient httpClient;
 
-    @InjectMocks
     private ApiClientServiceImpl apiClientService;
 
     @Mock
     InternalChargeApi internalChargeApi;
 
+    @BeforeEach
+    void setUp() {
+        apiClientService = new ApiClientServiceImpl(new InternalApiClientPool(
+                internalApiClientSupplier, 1, 1000L, new SimpleMeterRegistry()));
+    }
+
     @Test
     void putCharge() throws ApiErrorResponseException, URIValidationException {
         when(internalApiClientSupplier.get()).thenReturn(internalApiClient);
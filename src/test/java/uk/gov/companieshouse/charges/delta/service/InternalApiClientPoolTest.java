@@ -0,0 +1,70 @@
+package uk.gov.companieshouse.charges.delta.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.companieshouse.api.InternalApiClient;
+import uk.gov.companieshouse.api.http.HttpClient;
+import uk.gov.companieshouse.charges.delta.exception.RetryableErrorException;
+
+@ExtendWith(MockitoExtension.class)
+class InternalApiClientPoolTest {
+
+    @Mock
+    private Supplier<InternalApiClient> internalApiClientSupplier;
+
+    @Mock
+    private InternalApiClient internalApiClient;
+
+    @Mock
+    private HttpClient httpClient;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private InternalApiClientPool pool;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        pool = new InternalApiClientPool(internalApiClientSupplier, 1, 10L, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("A released client is reused for the next request with that request's id")
+    void When_ClientReleased_Expect_ClientReused() {
+        when(internalApiClientSupplier.get()).thenReturn(internalApiClient);
+        when(internalApiClient.getHttpClient()).thenReturn(httpClient);
+
+        pool.release(pool.borrow("request-1"));
+        InternalApiClient reused = pool.borrow("request-2");
+
+        assertThat(reused).isSameAs(internalApiClient);
+        verify(internalApiClientSupplier, times(1)).get();
+        verify(httpClient).setRequestId("request-1");
+        verify(httpClient).setRequestId("request-2");
+        assertThat(meterRegistry.get("charges.api.client.pool.active").gauge().value()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("charges.api.client.pool.wait").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Borrowing from an exhausted pool times out with a retryable error")
+    void When_PoolExhausted_Expect_RetryableError() {
+        when(internalApiClientSupplier.get()).thenReturn(internalApiClient);
+        when(internalApiClient.getHttpClient()).thenReturn(httpClient);
+        pool.borrow("request-1");
+
+        assertThrows(RetryableErrorException.class, () -> pool.borrow("request-2"));
+        assertThat(meterRegistry.get("charges.api.client.pool.idle").gauge().value()).isZero();
+    }
+}
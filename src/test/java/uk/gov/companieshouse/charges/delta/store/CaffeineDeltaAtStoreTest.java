@@ -0,0 +1,53 @@
+package uk.gov.companieshouse.charges.delta.store;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+import java.util.function.BiConsumer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class CaffeineDeltaAtStoreTest {
+    private static final String CHARGE_ID = "6DrQgDD109T7kBnVwtx5HrEX9B0";
+
+    @Mock
+    private DeltaAtChangelog changelog;
+
+    @Test
+    @DisplayName("Only deltas older than the latest applied delta are stale")
+    void When_DeltaApplied_Expect_OlderDeltasStale() {
+        CaffeineDeltaAtStore store = new CaffeineDeltaAtStore(10, Optional.empty());
+        store.applied(CHARGE_ID, "20230724093435661593");
+        store.applied(CHARGE_ID, "20230724093435661500");
+
+        assertThat(store.isStale(CHARGE_ID, "20230724093435661592")).isTrue();
+        assertThat(store.isStale(CHARGE_ID, "20230724093435661593")).isFalse();
+        assertThat(store.isStale(CHARGE_ID, "20230724093435661594")).isFalse();
+        assertThat(store.isStale("other", "20230724093435661592")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Applied deltas are written to the changelog and restored from it on startup")
+    @SuppressWarnings("unchecked")
+    void When_ChangelogConfigured_Expect_WrittenAndRestored() {
+        when(changelog.replay(any())).thenAnswer(invocation -> {
+            BiConsumer<String, String> entryConsumer = invocation.getArgument(0);
+            entryConsumer.accept(CHARGE_ID, "20230724093435661593");
+            return 1L;
+        });
+        CaffeineDeltaAtStore store = new CaffeineDeltaAtStore(10, Optional.of(changelog));
+
+        store.afterPropertiesSet();
+        store.applied("other", "20230724093435661593");
+
+        assertThat(store.isStale(CHARGE_ID, "20230724093435661592")).isTrue();
+        verify(changelog).append("other", "20230724093435661593");
+    }
+}
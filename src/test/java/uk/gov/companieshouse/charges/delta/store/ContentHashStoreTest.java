@@ -0,0 +1,100 @@
+package uk.gov.companieshouse.charges.delta.store;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.LocalDate;
+import java.util.List;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import uk.gov.companieshouse.api.charges.ChargeApi;
+
+class ContentHashStoreTest {
+    private static final String CHARGE_ID = "6DrQgDD109T7kBnVwtx5HrEX9B0";
+
+    @Test
+    @DisplayName("Equal charges hash the same and a changed charge hashes differently")
+    void When_ChargeHashed_Expect_StableHash() {
+        ContentHashStore store = new ContentHashStore(true, true, true, 10, new SimpleMeterRegistry());
+
+        String hash = store.hash(createCharge());
+        assertThat(store.hash(createCharge())).isEqualTo(hash);
+
+        ChargeApi changedCharge = createCharge();
+        changedCharge.setChargeNumber(2);
+        assertThat(store.hash(changedCharge)).isNotEqualTo(hash);
+    }
+
+    @Test
+    @DisplayName("Only a charge sent with the same hash is unchanged")
+    void When_HashSent_Expect_Unchanged() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ContentHashStore store = new ContentHashStore(true, true, true, 10, meterRegistry);
+
+        store.sent(CHARGE_ID, "hash");
+
+        assertThat(store.isUnchanged(CHARGE_ID, "hash")).isTrue();
+        assertThat(store.isUnchanged(CHARGE_ID, "other")).isFalse();
+        store.invalidate(CHARGE_ID);
+        assertThat(store.isUnchanged(CHARGE_ID, "hash")).isFalse();
+        assertThat(meterRegistry.get("charges.delta.put.skipped.unchanged").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Nothing is hashed or skipped when disabled")
+    void When_Disabled_Expect_NoHash() {
+        ContentHashStore store = new ContentHashStore(false, false, false, 10, new SimpleMeterRegistry());
+
+        String hash = store.hash(new ChargeApi());
+        store.sent(CHARGE_ID, hash);
+
+        assertThat(hash).isNull();
+        assertThat(store.isUnchanged(CHARGE_ID, hash)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Every hash is forgotten when partitions are revoked or lost")
+    void When_PartitionsRevoked_Expect_AllHashesForgotten() {
+        ContentHashStore store = new ContentHashStore(true, true, true, 10, new SimpleMeterRegistry());
+        List<TopicPartition> partitions = List.of(new TopicPartition("charges-delta", 0));
+
+        store.sent(CHARGE_ID, "hash");
+        store.onPartitionsRevokedAfterCommit(null, List.of());
+        assertThat(store.isUnchanged(CHARGE_ID, "hash")).isTrue();
+
+        store.onPartitionsRevokedAfterCommit(null, partitions);
+        assertThat(store.isUnchanged(CHARGE_ID, "hash")).isFalse();
+
+        store.sent(CHARGE_ID, "hash");
+        store.onPartitionsLost(null, partitions);
+        assertThat(store.isUnchanged(CHARGE_ID, "hash")).isFalse();
+    }
+
+    @Test
+    @DisplayName("The store cannot be enabled without the delta_at store")
+    void When_DeltaAtStoreDisabled_Expect_StartupFailure() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+        assertThatThrownBy(() -> new ContentHashStore(true, false, false, 10, meterRegistry))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("The store cannot be enabled without the delta_at changelog")
+    void When_DeltaAtChangelogDisabled_Expect_StartupFailure() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+        assertThatThrownBy(() -> new ContentHashStore(true, true, false, 10, meterRegistry))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    private static ChargeApi createCharge() {
+        ChargeApi chargeApi = new ChargeApi();
+        chargeApi.setChargeNumber(1);
+        chargeApi.setChargeCode("NI6224000001");
+        chargeApi.setCreatedOn(LocalDate.of(2014, 9, 25));
+        return chargeApi;
+    }
+}
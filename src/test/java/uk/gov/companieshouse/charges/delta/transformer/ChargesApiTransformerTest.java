@@ -94,7 +94,8 @@ class ChargesApiTransformerTest {
 
         Charge charge = expectedChargesDelta.getCharges().get(0);
 
-        InternalChargeApi internalChargeApi = transformer.transform(charge, testSupport.createKafkaHeaders());
+        InternalChargeApi internalChargeApi = transformer.transform(charge,
+                encoderUtil.encodeWithSha1(charge.getId()), testSupport.createKafkaHeaders());
 
         String chargeApiJson = objectMapper.writeValueAsString(internalChargeApi);
 
@@ -112,7 +113,8 @@ class ChargesApiTransformerTest {
 
         Charge charge = expectedChargesDelta.getCharges().get(0);
 
-        InternalChargeApi internalChargeApi = transformer.transform(charge, testSupport.createKafkaHeaders());
+        InternalChargeApi internalChargeApi = transformer.transform(charge,
+                encoderUtil.encodeWithSha1(charge.getId()), testSupport.createKafkaHeaders());
 
         String chargeApiJson = objectMapper.writeValueAsString(internalChargeApi);
         String expectedChargesApiJson = testSupport.loadTestdataFile("internal-charges-api-expected-12.json");
@@ -127,6 +129,7 @@ class ChargesApiTransformerTest {
     void When_ErrorDuringTransformation_ThenThrowRetryableErrorException() {
         Charge charge = new Charge();
 
-        assertThrows(RetryableErrorException.class, () -> transformer.transform(charge, testSupport.createKafkaHeaders()));
+        assertThrows(RetryableErrorException.class, () -> transformer.transform(charge, "encodedChargeId",
+                testSupport.createKafkaHeaders()));
     }
 }
\ No newline at end of file
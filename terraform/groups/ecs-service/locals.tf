@@ -57,7 +57,28 @@ locals {
   # secrets to go in list
   task_secrets = concat(local.global_secret_list,local.service_secret_list)
 
+  # Topics whose consumer lag is autoscaled on, keyed on a short name used in the policy name.
+  # Named as the service names its retry topic, or its delay tier topics when the backoff
+  # multiplier is above 1.
+  retry_topic = "${var.charges_delta_topic}-${var.charges_delta_group_id}-retry"
+  lag_topics = merge({ main = var.charges_delta_topic }, var.charges_delta_retry_tier_count == 0 ?
+    tomap({ retry = local.retry_topic }) :
+    tomap({ for tier in range(var.charges_delta_retry_tier_count) : "retry-${tier}" => "${local.retry_topic}-${tier}" }))
+
+  # Metric math ids for the lag of each topic, which may not contain hyphens
+  lag_metric_ids = { for key, topic in local.lag_topics : key => replace(key, "-", "_") }
+
+  lag_scaling_enabled = var.service_autoscale_enabled && var.service_autoscale_lag_enabled
+
+  # Tasks beyond the partition count of the topic would have no partitions assigned
+  max_task_count = var.charges_delta_partition_count > 0 ? min(var.max_task_count, var.charges_delta_partition_count) : var.max_task_count
+
+  # The topic and group the lag is scaled on only override the app environment file when lag
+  # scaling is enabled, so the service always consumes what the scaling policy watches
   task_environment = concat(local.ssm_global_version_map,local.ssm_service_version_map,[
     { "name" : "PORT", "value" : local.container_port }
-  ])
+  ], var.service_autoscale_lag_enabled ? [
+    { "name" : "CHARGES_DELTA_TOPIC", "value" : var.charges_delta_topic },
+    { "name" : "CHARGES_DELTA_GROUP_ID", "value" : var.charges_delta_group_id }
+  ] : [])
 }
@@ -54,7 +54,7 @@ module "ecs-service" {
   service_name                       = local.service_name
   name_prefix                        = local.name_prefix
   desired_task_count                 = var.desired_task_count
-  max_task_count                     = var.max_task_count
+  max_task_count                     = local.max_task_count
   required_cpus                      = var.required_cpus
   required_memory                    = var.required_memory
   service_autoscale_enabled          = var.service_autoscale_enabled
@@ -74,3 +74,140 @@ module "ecs-service" {
   app_environment_filename  = local.app_environment_filename
   use_set_environment_files = local.use_set_environment_files
 }
+
+# Scales out on consumer lag as well as CPU, as CPU alone lags behind during bulk loads.
+# Requires the MSK cluster to publish consumer lag metrics to CloudWatch. The lag does not fall
+# as tasks are added, so rather than tracking a target the service steps out one task at a time
+# while any topic lags, up to the partition count, and steps back in once all have caught up.
+resource "aws_appautoscaling_policy" "consumer_lag_scale_out" {
+  count = local.lag_scaling_enabled ? 1 : 0
+
+  name               = "${local.service_name}-${var.environment}-consumer-lag-scale-out"
+  policy_type        = "StepScaling"
+  resource_id        = "service/${data.aws_ecs_cluster.ecs_cluster.cluster_name}/${var.environment}-${local.service_name}"
+  scalable_dimension = "ecs:service:DesiredCount"
+  service_namespace  = "ecs"
+
+  step_scaling_policy_configuration {
+    adjustment_type         = "ChangeInCapacity"
+    cooldown                = var.service_autoscale_scale_out_cooldown
+    metric_aggregation_type = "Maximum"
+
+    step_adjustment {
+      metric_interval_lower_bound = 0
+      scaling_adjustment          = 1
+    }
+  }
+
+  lifecycle {
+    precondition {
+      condition     = var.kafka_cluster_name != ""
+      error_message = "kafka_cluster_name must be set when service_autoscale_lag_enabled is true."
+    }
+    precondition {
+      condition     = var.charges_delta_partition_count > 0
+      error_message = "charges_delta_partition_count must be set when service_autoscale_lag_enabled is true."
+    }
+  }
+
+  # The scalable target is created by the ecs-service module
+  depends_on = [module.ecs-service]
+}
+
+resource "aws_appautoscaling_policy" "consumer_lag_scale_in" {
+  count = local.lag_scaling_enabled ? 1 : 0
+
+  name               = "${local.service_name}-${var.environment}-consumer-lag-scale-in"
+  policy_type        = "StepScaling"
+  resource_id        = "service/${data.aws_ecs_cluster.ecs_cluster.cluster_name}/${var.environment}-${local.service_name}"
+  scalable_dimension = "ecs:service:DesiredCount"
+  service_namespace  = "ecs"
+
+  step_scaling_policy_configuration {
+    adjustment_type         = "ChangeInCapacity"
+    cooldown                = var.service_autoscale_scale_in_cooldown
+    metric_aggregation_type = "Maximum"
+
+    step_adjustment {
+      metric_interval_upper_bound = 0
+      scaling_adjustment          = -1
+    }
+  }
+
+  depends_on = [module.ecs-service]
+}
+
+# Both alarms watch the largest lag across the main and retry topics
+resource "aws_cloudwatch_metric_alarm" "consumer_lag_high" {
+  count = local.lag_scaling_enabled ? 1 : 0
+
+  alarm_name          = "${local.service_name}-${var.environment}-consumer-lag-high"
+  alarm_description   = "Adds a task while the consumer lag on any topic is above the scale out threshold"
+  comparison_operator = "GreaterThanThreshold"
+  evaluation_periods  = 2
+  threshold           = var.service_autoscale_lag_scale_out_threshold
+  treat_missing_data  = "notBreaching"
+  alarm_actions       = [aws_appautoscaling_policy.consumer_lag_scale_out[0].arn]
+
+  dynamic "metric_query" {
+    for_each = local.lag_topics
+    content {
+      id = local.lag_metric_ids[metric_query.key]
+      metric {
+        metric_name = var.service_autoscale_lag_metric
+        namespace   = "AWS/Kafka"
+        period      = 60
+        stat        = "Maximum"
+        dimensions = {
+          "Cluster Name"   = var.kafka_cluster_name
+          "Consumer Group" = var.charges_delta_group_id
+          "Topic"          = metric_query.value
+        }
+      }
+    }
+  }
+
+  metric_query {
+    id          = "lag"
+    expression  = "MAX([${join(",", values(local.lag_metric_ids))}])"
+    label       = "Consumer lag"
+    return_data = true
+  }
+}
+
+resource "aws_cloudwatch_metric_alarm" "consumer_lag_low" {
+  count = local.lag_scaling_enabled ? 1 : 0
+
+  alarm_name          = "${local.service_name}-${var.environment}-consumer-lag-low"
+  alarm_description   = "Removes a task while the consumer lag on every topic is below the scale in threshold"
+  comparison_operator = "LessThanThreshold"
+  evaluation_periods  = 15
+  threshold           = var.service_autoscale_lag_scale_in_threshold
+  treat_missing_data  = "notBreaching"
+  alarm_actions       = [aws_appautoscaling_policy.consumer_lag_scale_in[0].arn]
+
+  dynamic "metric_query" {
+    for_each = local.lag_topics
+    content {
+      id = local.lag_metric_ids[metric_query.key]
+      metric {
+        metric_name = var.service_autoscale_lag_metric
+        namespace   = "AWS/Kafka"
+        period      = 60
+        stat        = "Maximum"
+        dimensions = {
+          "Cluster Name"   = var.kafka_cluster_name
+          "Consumer Group" = var.charges_delta_group_id
+          "Topic"          = metric_query.value
+        }
+      }
+    }
+  }
+
+  metric_query {
+    id          = "lag"
+    expression  = "MAX([${join(",", values(local.lag_metric_ids))}])"
+    label       = "Consumer lag"
+    return_data = true
+  }
+}
@@ -95,6 +95,56 @@ variable "service_autoscale_scale_out_cooldown" {
   description = "Cooldown in seconds for ECS Service scale out (add more tasks)"
   default     = 300
 }
+variable "service_autoscale_lag_enabled" {
+  type        = bool
+  description = "Whether to also autoscale on the consumer lag published by MSK, requires service_autoscale_enabled"
+  default     = false
+}
+variable "service_autoscale_lag_metric" {
+  type        = string
+  description = "The MSK consumer lag metric to autoscale on, either SumOffsetLag (records) or EstimatedMaxTimeLag (seconds)"
+  default     = "SumOffsetLag"
+}
+variable "service_autoscale_lag_scale_out_threshold" {
+  type        = number
+  description = "Consumer lag on any topic above which the ECS Service adds a task, up to the partition count"
+  default     = 1000
+}
+variable "service_autoscale_lag_scale_in_threshold" {
+  type        = number
+  description = "Consumer lag on every topic below which the ECS Service removes a task, kept well under the scale out threshold"
+  default     = 100
+}
+variable "kafka_cluster_name" {
+  type        = string
+  description = "The name of the MSK cluster the consumer lag metrics are published for, required when service_autoscale_lag_enabled is true"
+  default     = ""
+}
+variable "charges_delta_topic" {
+  type        = string
+  description = "The charges delta topic whose lag is autoscaled on, passed to the service as CHARGES_DELTA_TOPIC when service_autoscale_lag_enabled is true"
+  default     = "charges-delta"
+}
+variable "charges_delta_group_id" {
+  type        = string
+  description = "The consumer group of the service whose lag on the main and retry topics is autoscaled on, passed to it as CHARGES_DELTA_GROUP_ID when service_autoscale_lag_enabled is true"
+  default     = "charges-delta-consumer"
+}
+variable "charges_delta_partition_count" {
+  type        = number
+  description = "The partition count of the charges delta topic, which caps max_task_count when set and is required when service_autoscale_lag_enabled is true"
+  default     = 0
+}
+variable "charges_delta_retry_tier_count" {
+  type        = number
+  description = "The number of retry delay tier topics (-retry-0, -retry-1, ...) the service uses when CHARGES_DELTA_BACKOFF_MULTIPLIER is above 1, or 0 when it uses the single -retry topic"
+  default     = 0
+
+  validation {
+    condition     = var.charges_delta_retry_tier_count >= 0 && floor(var.charges_delta_retry_tier_count) == var.charges_delta_retry_tier_count
+    error_message = "charges_delta_retry_tier_count must be a whole number of at least 0."
+  }
+}
 
 # ------------------------------------------------------------------------------
 # Service environment variable configs